@@ -1,5 +1,7 @@
 package io.github.oliviercailloux.j_voting;
 
+import static java.util.Objects.requireNonNull;
+
 import java.util.Set;
 
 import com.google.common.base.Objects;
@@ -29,16 +31,39 @@ public class VoterPartialPreference {
 	return v;
     }
 
+    /**
+     * @param transitiveGraph transitively closed and irreflexive: a copy of it
+     *                        becomes the graph of the returned preference, and
+     *                        it is kept as its transitive closure, which thus
+     *                        needs not be computed.
+     */
+    public static VoterPartialPreference ofTransitive(Voter voter, ImmutableGraph<Alternative> transitiveGraph) {
+	final MutableGraph<Alternative> graph = Graphs.copyOf(transitiveGraph);
+	final PrefGraph watcher = new PrefGraph(graph);
+	final VoterPartialPreference v = new VoterPartialPreference(voter, watcher);
+	watcher.setCallback(v);
+	v.transitiveEquivalent = transitiveGraph;
+	return v;
+    }
+
     private final Voter voter;
 
     private final PrefGraph pref;
 
     private ImmutableGraph<Alternative> transitiveEquivalent;
 
+    private Runnable changeListener;
+
+    private Runnable closureListener;
+
     public VoterPartialPreference(Voter voter, PrefGraph pref) {
 	this.voter = voter;
 	this.pref = pref;
 	transitiveEquivalent = null;
+	changeListener = () -> {
+	};
+	closureListener = () -> {
+	};
     }
 
     public MutableGraph<Alternative> asGraph() {
@@ -53,6 +78,7 @@ public class VoterPartialPreference {
      */
     public ImmutableGraph<Alternative> asTransitiveGraph() {
 	if (transitiveEquivalent == null) {
+	    closureListener.run();
 	    final MutableGraph<Alternative> trans = Graphs.copyOf(Graphs.transitiveClosure(pref));
 	    for (Alternative a : trans.nodes()) {
 		trans.removeEdge(a, a);
@@ -85,7 +111,27 @@ public class VoterPartialPreference {
 	return "Voter: " + voter + " Pref: " + pref.edges();
     }
 
+    /**
+     * @param listener called whenever the graph changes; replaces the previous
+     *                 listener, if any; not copied by
+     *                 {@link #copyOf(VoterPartialPreference)}.
+     */
+    public void setChangeListener(Runnable listener) {
+	changeListener = requireNonNull(listener);
+    }
+
+    /**
+     * @param listener called whenever the transitive closure of the graph is
+     *                 computed, for instrumentation; replaces the previous
+     *                 listener, if any; not copied by
+     *                 {@link #copyOf(VoterPartialPreference)}.
+     */
+    public void setClosureListener(Runnable listener) {
+	closureListener = requireNonNull(listener);
+    }
+
     public void setGraphChanged() {
 	transitiveEquivalent = null;
+	changeListener.run();
     }
 }
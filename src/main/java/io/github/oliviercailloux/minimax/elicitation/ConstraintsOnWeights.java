@@ -1,34 +1,17 @@
 package io.github.oliviercailloux.minimax.elicitation;
 
-import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
 
 import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
-import io.github.oliviercailloux.jlp.elements.Constraint;
-import io.github.oliviercailloux.jlp.elements.Objective;
-import io.github.oliviercailloux.jlp.elements.RangeOfDouble;
 import io.github.oliviercailloux.jlp.elements.Sense;
 import io.github.oliviercailloux.jlp.elements.SumTerms;
-import io.github.oliviercailloux.jlp.elements.SumTermsBuilder;
 import io.github.oliviercailloux.jlp.elements.Term;
-import io.github.oliviercailloux.jlp.elements.Variable;
-import io.github.oliviercailloux.jlp.elements.VariableDomain;
-import io.github.oliviercailloux.jlp.mp.IMP;
-import io.github.oliviercailloux.jlp.mp.MP;
-import io.github.oliviercailloux.jlp.mp.MPBuilder;
-import io.github.oliviercailloux.jlp.or_tools.OrToolsSolver;
-import io.github.oliviercailloux.jlp.result.Result;
-import io.github.oliviercailloux.jlp.result.ResultStatus;
 import io.github.oliviercailloux.jlp.result.Solution;
-import io.github.oliviercailloux.jlp.solve.Solver;
 
 /**
  *
@@ -74,6 +57,14 @@ import io.github.oliviercailloux.jlp.solve.Solver;
  * 153 epsilon (if m = 20), with epsilon = 10^−6, we obtain a maximal value of
  * −0.5.
  * </p>
+ * <p>
+ * An instance is a mutable handle over an {@link ImmutableConstraintsOnWeights}
+ * snapshot, replaced each time a constraint is added. It may be shared among
+ * threads. Prefer {@link #maximizeAll(List)} and {@link #minimizeAll(List)},
+ * which return the optimal weights together with the values, to the sequence
+ * of an optimization followed by {@link #getLastSolution()}, which another
+ * thread may interleave.
+ * </p>
  *
  *
  * @author Olivier Cailloux
@@ -90,67 +81,43 @@ public class ConstraintsOnWeights {
      *          alternatives.
      */
     public static ConstraintsOnWeights withRankNumber(int m) {
-	return new ConstraintsOnWeights(m);
+	return new ConstraintsOnWeights(ImmutableConstraintsOnWeights.withRankNumber(m));
     }
 
+    /**
+     * @return an independent copy: constraints subsequently added to one of the
+     *         instances do not affect the other one.
+     */
     public static ConstraintsOnWeights copyOf(ConstraintsOnWeights cw) {
-	ConstraintsOnWeights c = new ConstraintsOnWeights(cw.builder, cw.convexityConstraintSet);
-	return c;
+	return new ConstraintsOnWeights(cw.getSnapshot());
     }
 
-    private MPBuilder builder;
+    public static ConstraintsOnWeights given(ImmutableConstraintsOnWeights snapshot) {
+	return new ConstraintsOnWeights(snapshot);
+    }
 
-    private final Solver solver;
+    private volatile ImmutableConstraintsOnWeights snapshot;
 
     private Solution lastSolution;
 
-    private boolean convexityConstraintSet;
-
-    private ConstraintsOnWeights(int m) {
-	checkArgument(m >= 1);
-	builder = MP.builder();
-	builder.addVariable(
-		Variable.of("w", VariableDomain.REAL_DOMAIN, RangeOfDouble.closed(1d, 1d), ImmutableSet.of(1)));
-	for (int rank = 2; rank < m; ++rank) {
-	    builder.addVariable(
-		    Variable.of("w", VariableDomain.REAL_DOMAIN, RangeOfDouble.ZERO_ONE_RANGE, ImmutableSet.of(rank)));
-	}
-	if (m >= 2) {
-	    builder.addVariable(
-		    Variable.of("w", VariableDomain.REAL_DOMAIN, RangeOfDouble.closed(0d, 0d), ImmutableSet.of(m)));
-	}
-	solver = new OrToolsSolver();
+    private ConstraintsOnWeights(ImmutableConstraintsOnWeights snapshot) {
+	this.snapshot = requireNonNull(snapshot);
 	lastSolution = null;
-	convexityConstraintSet = false;
     }
 
     /**
-     * Copy constructor.
-     *
-     * @param mp                     should come from another COW instance (to
-     *                               guarantee that the structure conforms to
-     *                               expectations).
-     * @param convexityConstraintSet should come from the same instance (to
-     *                               guarantee coherence).
+     * @return the constraints currently in this instance, unaffected by
+     *         constraints subsequently added to this instance.
      */
-    private ConstraintsOnWeights(MPBuilder mp, boolean convexityConstraintSet) {
-	builder = mp; // Replace by: builder = mp;
-	solver = new OrToolsSolver();
-	lastSolution = null;
-	this.convexityConstraintSet = convexityConstraintSet;
+    public ImmutableConstraintsOnWeights getSnapshot() {
+	return snapshot;
     }
 
     /**
      * May be called only once.
      */
-    public void setConvexityConstraint() {
-	checkState(!convexityConstraintSet);
-	for (int rank = 1; rank <= getM() - 2; ++rank) {
-	    builder.addConstraint(Constraint.of("Convexity rank " + rank,
-		    SumTerms.of(1d, getVariable(rank), -2d, getVariable(rank + 1), 1d, getVariable(rank + 2)),
-		    ComparisonOperator.GE, EPSILON));
-	}
-	convexityConstraintSet = true;
+    public synchronized void setConvexityConstraint() {
+	snapshot = snapshot.withConvexityConstraint();
     }
 
     /**
@@ -160,121 +127,88 @@ public class ConstraintsOnWeights {
      * @param op     the operator.
      * @param lambda a finite double.
      */
-    void addConstraint(int i, ComparisonOperator op, double lambda) {
-	checkArgument(i >= 1);
-	checkArgument(i <= getM() - 2);
-	checkArgument(Double.isFinite(lambda));
+    synchronized void addConstraint(int i, ComparisonOperator op, double lambda) {
+	snapshot = snapshot.with(i, op, lambda);
+    }
 
-	final SumTermsBuilder sumBuilder = SumTerms.builder();
-	sumBuilder.addTerm(1, getVariable(i));
-	sumBuilder.addTerm(-lambda - 1d, getVariable(i + 1));
-	sumBuilder.addTerm(lambda, getVariable(i + 2));
-	final Constraint cst = Constraint.of(sumBuilder.build(), op, 0d);
-	builder.addConstraint(cst);
+    /**
+     * Adds all the given constraints, as by
+     * {@link #addConstraint(int, ComparisonOperator, double)}, but replacing the
+     * snapshot only once, so that no other thread sees only part of them.
+     */
+    synchronized void addConstraints(List<CommitteePreferenceInformation> constraints) {
+	ImmutableConstraintsOnWeights current = snapshot;
+	for (CommitteePreferenceInformation constraint : constraints) {
+	    current = current.with(constraint.getRank(), constraint.getOperator(),
+		    constraint.getLambda().doubleValue());
+	}
+	snapshot = current;
     }
 
     /**
      * @return at least one.
      */
     public int getM() {
-	return builder.getVariables().size();
+	return snapshot.getM();
     }
 
     public Range<Double> getWeightRange(int rank) {
-	checkArgument(rank >= 1);
-	checkArgument(rank <= getM());
-
-	return boundObjective(SumTerms.of(1d, getVariable(rank)));
+	return snapshot.getWeightRange(rank);
     }
 
     public Term getTerm(double coefficient, int rank) {
-	return Term.of(coefficient, getVariable(rank));
-    }
-
-    public double maximize(SumTerms sum) {
-	final Objective obj = Objective.max(sum);
-	return optimize(obj);
-    }
-
-    public double minimize(SumTerms sum) {
-	final Objective obj;
-	if (sum.size() == 0) {
-	    obj = Objective.ZERO;
-	} else {
-	    obj = Objective.min(sum);
-	}
-	return optimize(obj);
-    }
-
-    public PSRWeights getLastSolution() {
-	/** PSRWeights only accept convex weights. */
-	checkState(convexityConstraintSet);
-	final List<Double> weights = new LinkedList<>();
-	for (int r = 1; r <= getM(); ++r) {
-	    final double value = lastSolution.getValue(getVariable(r));
-	    weights.add(value);
-	}
-	return PSRWeights.given(weights);
-    }
-
-    private Variable getVariable(int rank) {
-	checkArgument(rank >= 1);
-	checkArgument(rank <= getM());
-	return builder.getVariable(getVariableDescription(rank));
+	return snapshot.getTerm(coefficient, rank);
     }
 
-    private String getVariableDescription(int rank) {
-	return Variable.getDefaultDescription("w", ImmutableList.of(rank));
+    public synchronized double maximize(SumTerms sum) {
+	lastSolution = snapshot.solve(Sense.MAX, sum);
+	return lastSolution.getObjectiveValue();
     }
 
-    private double optimize(Objective obj) {
-	builder.setObjective(obj);
-	final Result result = solver.solve(builder);
-	checkArgument(result.getResultStatus().equals(ResultStatus.OPTIMAL));
-	lastSolution = result.getSolution().get();
+    public synchronized double minimize(SumTerms sum) {
+	lastSolution = snapshot.solve(Sense.MIN, sum);
 	return lastSolution.getObjectiveValue();
     }
 
-    private double bound(IMP mp) {
-	final double bound;
-
-	final Result result = solver.solve(mp);
-	switch (result.getResultStatus()) {
-	case INFEASIBLE:
-	case MEMORY_LIMIT_REACHED:
-	case TIME_LIMIT_REACHED:
-	    throw new IllegalStateException();
-	case UNBOUNDED:
-	    if (mp.getObjective().getSense() == Sense.MAX) {
-		bound = Double.POSITIVE_INFINITY;
-	    } else {
-		bound = Double.NEGATIVE_INFINITY;
-	    }
-	    break;
-	case OPTIMAL:
-	    bound = result.getSolution().get().getObjectiveValue();
-	    break;
-	default:
-	    throw new AssertionError();
-	}
-	return bound;
+    /**
+     * Maximizes each of the given objectives over the current constraints. An
+     * objective that appears several times is solved only once.
+     *
+     * @param objectives the sums to maximize, may be empty.
+     * @return the optimal values and weights, in the order of the objectives.
+     */
+    public Optima maximizeAll(List<SumTerms> objectives) {
+	return snapshot.maximizeAll(objectives);
     }
 
-    private Range<Double> boundObjective(SumTerms objectiveFunction) {
-	builder.setObjective(Objective.min(objectiveFunction));
-	final double lBound = bound(builder);
-
-	builder.setObjective(Objective.max(objectiveFunction));
-	final double uBound = bound(builder);
+    /**
+     * Minimizes each of the given objectives over the current constraints. An
+     * objective that appears several times is solved only once.
+     *
+     * @param objectives the sums to minimize, may be empty.
+     * @return the optimal values and weights, in the order of the objectives.
+     */
+    public Optima minimizeAll(List<SumTerms> objectives) {
+	return snapshot.minimizeAll(objectives);
+    }
 
-	return RangeOfDouble.using(lBound, uBound);
+    /**
+     * Consider using {@link #maximizeAll(List)} or {@link #minimizeAll(List)}
+     * instead, if this instance is shared among threads.
+     *
+     * @return the weights that realize the optimum found by the last call to
+     *         {@link #maximize(SumTerms)} or {@link #minimize(SumTerms)}.
+     */
+    public synchronized PSRWeights getLastSolution() {
+	return snapshot.toWeights(lastSolution);
     }
 
     public String rangesAsString() {
+	final ImmutableConstraintsOnWeights current = snapshot;
 	StringBuilder sb = new StringBuilder();
-	for (int i = 1; i <= builder.getVariables().size(); i++) {
+	for (int i = 1; i <= current.getM(); i++) {
 	    sb.append("Rank " + i + " ");
-	    sb.append(getWeightRange(i).toString());
+	    sb.append(current.getWeightRange(i).toString());
 	    sb.append("\n");
 	}
 	return sb.toString();
@@ -282,6 +216,6 @@ public class ConstraintsOnWeights {
 
     @Override
     public String toString() {
-	return MoreObjects.toStringHelper(this).add("Builder", builder).toString();
+	return MoreObjects.toStringHelper(this).add("Snapshot", snapshot).toString();
     }
 }
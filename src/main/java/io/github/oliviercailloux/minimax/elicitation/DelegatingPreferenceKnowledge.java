@@ -13,6 +13,18 @@ import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
 import io.github.oliviercailloux.j_voting.VoterPartialPreference;
 
+/**
+ * The knowledge of a parent {@link UpdateablePreferenceKnowledge} plus one
+ * hypothetical piece of information, leaving the parent untouched.
+ *
+ * <p>
+ * A voter information is layered over the parent by copying the partial
+ * preference of the concerned voter only. A committee information is layered
+ * over the parent by adding one constraint row to a snapshot of the parent
+ * constraints on weights (see {@link ImmutableConstraintsOnWeights}), which
+ * does not copy the parent constraints.
+ * </p>
+ */
 public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
 
     final private UpdateablePreferenceKnowledge prefKnowledge;
@@ -21,6 +33,8 @@ public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
 
     private ImmutableMap<Voter, VoterPartialPreference> newProfile;
 
+    private ConstraintsOnWeights newConstraints;
+
     public static DelegatingPreferenceKnowledge given(UpdateablePreferenceKnowledge prefKnowledge,
 	    PreferenceInformation newInfo) {
 	checkNotNull(prefKnowledge);
@@ -32,6 +46,7 @@ public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
 	prefKnowledge = knowledge;
 	newInformation = newInfo;
 	newProfile = null;
+	newConstraints = null;
     }
 
     @Override
@@ -44,6 +59,11 @@ public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
 	return prefKnowledge.getVoters();
     }
 
+    @Override
+    public DenseIndex getIndex() {
+	return prefKnowledge.getIndex();
+    }
+
     @Override
     public ImmutableMap<Voter, VoterPartialPreference> getProfile() {
 	if (newProfile == null) {
@@ -69,18 +89,37 @@ public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
 	    return prefKnowledge.getPartialPreference(voter);
 
 	VoterPartialPreference partialPref = VoterPartialPreference.copyOf(prefKnowledge.getPartialPreference(voter));
+	partialPref.setClosureListener(UpdateablePreferenceKnowledge.CLOSURE_COUNTER);
 	partialPref.asGraph().putEdge(newVotPref.getBetterAlternative(), newVotPref.getWorstAlternative());
 	return partialPref;
     }
 
     @Override
     public ConstraintsOnWeights getConstraintsOnWeights() {
-	return prefKnowledge.getConstraintsOnWeights();
+	if (newInformation.getType() == QuestionType.VOTER_QUESTION)
+	    return prefKnowledge.getConstraintsOnWeights();
+
+	if (newConstraints == null) {
+	    final CommitteePreferenceInformation newComPref = newInformation.asCommitteeInformation();
+	    final ImmutableConstraintsOnWeights parentConstraints = prefKnowledge.getConstraintsOnWeights()
+		    .getSnapshot();
+	    newConstraints = ConstraintsOnWeights.given(parentConstraints.with(newComPref.getRank(),
+		    newComPref.getOperator(), newComPref.getLambda().doubleValue()));
+	}
+	return newConstraints;
     }
 
     @Override
     public Range<Aprational> getLambdaRange(int rank) {
-	return prefKnowledge.getLambdaRange(rank);
+	final Range<Aprational> parentRange = prefKnowledge.getLambdaRange(rank);
+	if (newInformation.getType() == QuestionType.VOTER_QUESTION)
+	    return parentRange;
+
+	final CommitteePreferenceInformation newComPref = newInformation.asCommitteeInformation();
+	if (newComPref.getRank() != rank)
+	    return parentRange;
+
+	return UpdateablePreferenceKnowledge.restrict(parentRange, newComPref.getOperator(), newComPref.getLambda());
     }
 
     @Override
@@ -88,15 +127,18 @@ public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
 	if (newInformation.getType() == QuestionType.COMMITTEE_QUESTION)
 	    return prefKnowledge.isProfileComplete();
 
-	int m = prefKnowledge.getAlternatives().size();
-
-	for (Voter voter : prefKnowledge.getProfile().keySet()) {
-	    final Graph<Alternative> graph = getPartialPreference(voter).asTransitiveGraph();
-	    if (graph.edges().size() != m * (m - 1) / 2) {
-		return false;
-	    }
+	/** Only the voter concerned by the new information may have become complete. */
+	final int nbQuestionable = prefKnowledge.getNbQuestionableVoters();
+	if (nbQuestionable == 0) {
+	    return true;
+	}
+	final Voter voter = newInformation.asVoterInformation().getVoter();
+	if (nbQuestionable >= 2 || !prefKnowledge.isQuestionable(voter)) {
+	    return false;
 	}
-	return true;
+	final int m = prefKnowledge.getAlternatives().size();
+	final Graph<Alternative> graph = getPartialPreference(voter).asTransitiveGraph();
+	return graph.edges().size() == m * (m - 1) / 2;
     }
 
 }
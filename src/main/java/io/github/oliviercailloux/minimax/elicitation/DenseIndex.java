@@ -0,0 +1,121 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.BitSet;
+import java.util.Set;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.minimax.utils.IdIndex;
+
+/**
+ * Numbers the alternatives from 0 to m − 1 and the voters from 0 to n − 1, in
+ * the iteration order of the sets they are given in, so that per-alternative
+ * and per-voter data may be stored in primitive arrays (or bit sets) indexed by
+ * these numbers, the objects being used only at the API boundaries.
+ *
+ * <p>
+ * Immutable.
+ * </p>
+ */
+public class DenseIndex {
+    public static DenseIndex given(Set<Alternative> alternatives, Set<Voter> voters) {
+	return new DenseIndex(alternatives, voters);
+    }
+
+    private final ImmutableList<Alternative> alternatives;
+
+    private final ImmutableList<Voter> voters;
+
+    private final IdIndex alternativeIndex;
+
+    private final IdIndex voterIndex;
+
+    private DenseIndex(Set<Alternative> alternatives, Set<Voter> voters) {
+	this.alternatives = ImmutableList.copyOf(alternatives);
+	this.voters = ImmutableList.copyOf(voters);
+	alternativeIndex = IdIndex.given(this.alternatives.stream().mapToInt(Alternative::getId).toArray());
+	voterIndex = IdIndex.given(this.voters.stream().mapToInt(Voter::getId).toArray());
+    }
+
+    public int getNbAlternatives() {
+	return alternatives.size();
+    }
+
+    public int getNbVoters() {
+	return voters.size();
+    }
+
+    /**
+     * @return the alternatives, the one of index i at position i.
+     */
+    public ImmutableList<Alternative> getAlternatives() {
+	return alternatives;
+    }
+
+    /**
+     * @return the voters, the one of index i at position i.
+     */
+    public ImmutableList<Voter> getVoters() {
+	return voters;
+    }
+
+    public Alternative getAlternative(int index) {
+	return alternatives.get(index);
+    }
+
+    public Voter getVoter(int index) {
+	return voters.get(index);
+    }
+
+    /**
+     * @throws IllegalArgumentException iff the alternative is not indexed.
+     */
+    public int getIndex(Alternative alternative) {
+	final int index = alternativeIndex.getIndex(alternative.getId());
+	checkArgument(index >= 0, "Unknown alternative: " + alternative + ".");
+	return index;
+    }
+
+    /**
+     * @throws IllegalArgumentException iff the voter is not indexed.
+     */
+    public int getIndex(Voter voter) {
+	final int index = voterIndex.getIndex(voter.getId());
+	checkArgument(index >= 0, "Unknown voter: " + voter + ".");
+	return index;
+    }
+
+    /**
+     * @param valueOfVoter the value of the voter i at index i.
+     * @return a map in the order of the voter indices.
+     */
+    public ImmutableMap<Voter, Integer> asVoterMap(int[] valueOfVoter) {
+	checkArgument(valueOfVoter.length == voters.size());
+	final ImmutableMap.Builder<Voter, Integer> builder = ImmutableMap.builderWithExpectedSize(voters.size());
+	for (int i = 0; i < valueOfVoter.length; ++i) {
+	    builder.put(voters.get(i), valueOfVoter[i]);
+	}
+	return builder.build();
+    }
+
+    /**
+     * @param alternativeIndices indices of alternatives.
+     * @return a set in the order of the indices.
+     */
+    public ImmutableSet<Alternative> asAlternatives(BitSet alternativeIndices) {
+	checkArgument(alternativeIndices.length() <= alternatives.size());
+	return alternativeIndices.stream().mapToObj(alternatives::get).collect(ImmutableSet.toImmutableSet());
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Alternatives", alternatives).add("Voters", voters).toString();
+    }
+}
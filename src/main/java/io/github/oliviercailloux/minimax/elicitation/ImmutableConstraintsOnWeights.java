@@ -0,0 +1,385 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Range;
+
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.jlp.elements.Constraint;
+import io.github.oliviercailloux.jlp.elements.Objective;
+import io.github.oliviercailloux.jlp.elements.RangeOfDouble;
+import io.github.oliviercailloux.jlp.elements.Sense;
+import io.github.oliviercailloux.jlp.elements.SumTerms;
+import io.github.oliviercailloux.jlp.elements.SumTermsBuilder;
+import io.github.oliviercailloux.jlp.elements.Term;
+import io.github.oliviercailloux.jlp.elements.Variable;
+import io.github.oliviercailloux.jlp.elements.VariableDomain;
+import io.github.oliviercailloux.jlp.mp.IMP;
+import io.github.oliviercailloux.jlp.mp.MP;
+import io.github.oliviercailloux.jlp.mp.MPBuilder;
+import io.github.oliviercailloux.jlp.or_tools.OrToolsSolver;
+import io.github.oliviercailloux.jlp.result.Result;
+import io.github.oliviercailloux.jlp.result.ResultStatus;
+import io.github.oliviercailloux.jlp.result.Solution;
+import io.github.oliviercailloux.jlp.solve.Solver;
+import io.github.oliviercailloux.minimax.utils.Counters;
+import io.github.oliviercailloux.minimax.utils.Counters.Counter;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics.Caller;
+
+/**
+ * Immutable snapshot of constraints on weights (see
+ * {@link ConstraintsOnWeights} for the meaning of the constraints).
+ *
+ * <p>
+ * A snapshot is a node in a chain of constraint rows: {@link #with(Constraint)}
+ * returns a new snapshot that links to this one and adds a single row, thus
+ * costs constant time and memory and leaves this snapshot untouched. Each
+ * thread keeps a solver and the mathematical program of the last snapshot it
+ * optimized over. An optimization request over that snapshot reuses that
+ * program; over a descendant of it, extends it with the rows added since; and
+ * over any other snapshot, builds it anew from the rows of the chain.
+ * Snapshots may thus be shared freely among threads.
+ * </p>
+ * <p>
+ * As a program can only grow, the program of a snapshot is not reused for its
+ * siblings: when a thread alternates between the two children of a snapshot
+ * (for example, when evaluating both answers to a question), each request
+ * builds the program anew. Only the successive snapshots of a single knowledge
+ * (or requests repeated over one snapshot) benefit from the cache.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class ImmutableConstraintsOnWeights {
+    private static final ThreadLocal<Solver> SOLVERS = ThreadLocal.withInitial(OrToolsSolver::new);
+
+    /**
+     * The last model used by each thread, with the snapshot it represents.
+     */
+    private static final ThreadLocal<CachedModel> MODELS = new ThreadLocal<>();
+
+    private static class CachedModel {
+	private final ImmutableConstraintsOnWeights snapshot;
+	private final MPBuilder model;
+
+	private CachedModel(ImmutableConstraintsOnWeights snapshot, MPBuilder model) {
+	    this.snapshot = requireNonNull(snapshot);
+	    this.model = requireNonNull(model);
+	}
+    }
+
+    /**
+     * @param m at least one: the number of ranks, or equivalently, the number of
+     *          alternatives.
+     */
+    public static ImmutableConstraintsOnWeights withRankNumber(int m) {
+	checkArgument(m >= 1);
+	final ImmutableList.Builder<Variable> variables = ImmutableList.builder();
+	variables.add(Variable.of("w", VariableDomain.REAL_DOMAIN, RangeOfDouble.closed(1d, 1d), ImmutableSet.of(1)));
+	for (int rank = 2; rank < m; ++rank) {
+	    variables.add(
+		    Variable.of("w", VariableDomain.REAL_DOMAIN, RangeOfDouble.ZERO_ONE_RANGE, ImmutableSet.of(rank)));
+	}
+	if (m >= 2) {
+	    variables.add(
+		    Variable.of("w", VariableDomain.REAL_DOMAIN, RangeOfDouble.closed(0d, 0d), ImmutableSet.of(m)));
+	}
+	return new ImmutableConstraintsOnWeights(variables.build(), null, null, false);
+    }
+
+    private final ImmutableList<Variable> variables;
+
+    /**
+     * {@code null} iff this snapshot is the root of the chain.
+     */
+    private final @Nullable ImmutableConstraintsOnWeights parent;
+
+    /**
+     * The row added by this snapshot to its parent, {@code null} iff this snapshot
+     * is the root of the chain.
+     */
+    private final @Nullable Constraint row;
+
+    private final int nbRows;
+
+    private final boolean convexityConstraintSet;
+
+    private ImmutableConstraintsOnWeights(ImmutableList<Variable> variables,
+	    @Nullable ImmutableConstraintsOnWeights parent, @Nullable Constraint row, boolean convexityConstraintSet) {
+	this.variables = requireNonNull(variables);
+	this.parent = parent;
+	this.row = row;
+	checkArgument((parent == null) == (row == null));
+	this.nbRows = parent == null ? 0 : parent.nbRows + 1;
+	this.convexityConstraintSet = convexityConstraintSet;
+    }
+
+    /**
+     * @return a snapshot with the same constraints as this one plus the given
+     *         row.
+     */
+    public ImmutableConstraintsOnWeights with(Constraint constraint) {
+	return new ImmutableConstraintsOnWeights(variables, this, requireNonNull(constraint), convexityConstraintSet);
+    }
+
+    /**
+     * Returns a snapshot with the same constraints as this one plus: (w_i −
+     * w_{i+1}) OP λ (w_{i+1} − w_{i+2}).
+     *
+     * @param i      1 ≤ i ≤ m-2.
+     * @param op     the operator.
+     * @param lambda a finite double.
+     */
+    public ImmutableConstraintsOnWeights with(int i, ComparisonOperator op, double lambda) {
+	checkArgument(i >= 1);
+	checkArgument(i <= getM() - 2);
+	checkArgument(Double.isFinite(lambda));
+
+	final SumTermsBuilder sumBuilder = SumTerms.builder();
+	sumBuilder.addTerm(1, getVariable(i));
+	sumBuilder.addTerm(-lambda - 1d, getVariable(i + 1));
+	sumBuilder.addTerm(lambda, getVariable(i + 2));
+	return with(Constraint.of(sumBuilder.build(), op, 0d));
+    }
+
+    /**
+     * May be called only on a snapshot with no convexity constraint in its chain.
+     *
+     * @return a snapshot with the same constraints as this one plus the convexity
+     *         constraints.
+     */
+    public ImmutableConstraintsOnWeights withConvexityConstraint() {
+	checkState(!convexityConstraintSet);
+	ImmutableConstraintsOnWeights current = this;
+	for (int rank = 1; rank <= getM() - 2; ++rank) {
+	    final Constraint convexity = Constraint.of("Convexity rank " + rank,
+		    SumTerms.of(1d, getVariable(rank), -2d, getVariable(rank + 1), 1d, getVariable(rank + 2)),
+		    ComparisonOperator.GE, ConstraintsOnWeights.EPSILON);
+	    current = new ImmutableConstraintsOnWeights(variables, current, convexity, false);
+	}
+	return new ImmutableConstraintsOnWeights(variables, current.parent, current.row, true);
+    }
+
+    public boolean isConvexityConstraintSet() {
+	return convexityConstraintSet;
+    }
+
+    /**
+     * @return at least one.
+     */
+    public int getM() {
+	return variables.size();
+    }
+
+    /**
+     * @return the rows of this snapshot, from the oldest to the most recent one.
+     */
+    public ImmutableList<Constraint> getRows() {
+	final Deque<Constraint> rows = new ArrayDeque<>(nbRows);
+	for (ImmutableConstraintsOnWeights current = this; current.parent != null; current = current.parent) {
+	    rows.addFirst(current.row);
+	}
+	return ImmutableList.copyOf(rows);
+    }
+
+    public Term getTerm(double coefficient, int rank) {
+	return Term.of(coefficient, getVariable(rank));
+    }
+
+    public Range<Double> getWeightRange(int rank) {
+	checkArgument(rank >= 1);
+	checkArgument(rank <= getM());
+
+	final SumTerms objectiveFunction = SumTerms.of(1d, getVariable(rank));
+	final MPBuilder model = getModel();
+	final double lBound;
+	final double uBound;
+	try (SolverMetrics.Scope scope = SolverMetrics.as(Caller.WEIGHT_RANGE)) {
+	    model.setObjective(Objective.min(objectiveFunction));
+	    lBound = bound(model);
+
+	    model.setObjective(Objective.max(objectiveFunction));
+	    uBound = bound(model);
+	}
+
+	return RangeOfDouble.using(lBound, uBound);
+    }
+
+    /**
+     * Maximizes each of the given objectives over these constraints. An objective
+     * that appears several times is solved only once.
+     *
+     * @param objectives the sums to maximize, may be empty.
+     * @return the optimal values and weights, in the order of the objectives.
+     */
+    public Optima maximizeAll(List<SumTerms> objectives) {
+	return optimizeAll(Sense.MAX, objectives);
+    }
+
+    /**
+     * Minimizes each of the given objectives over these constraints. An objective
+     * that appears several times is solved only once.
+     *
+     * @param objectives the sums to minimize, may be empty.
+     * @return the optimal values and weights, in the order of the objectives.
+     */
+    public Optima minimizeAll(List<SumTerms> objectives) {
+	return optimizeAll(Sense.MIN, objectives);
+    }
+
+    /**
+     * Does not require the convexity constraints.
+     *
+     * @throws IllegalArgumentException iff no optimal solution exists.
+     */
+    Solution solve(Sense sense, SumTerms sum) {
+	final MPBuilder model = getModel();
+	return optimize(model, sense, sum);
+    }
+
+    PSRWeights toWeights(Solution solution) {
+	/** PSRWeights only accept convex weights. */
+	checkState(convexityConstraintSet);
+	final List<Double> weights = new LinkedList<>();
+	for (int r = 1; r <= getM(); ++r) {
+	    final double value = solution.getValue(getVariable(r));
+	    weights.add(value);
+	}
+	return PSRWeights.given(weights);
+    }
+
+    private Optima optimizeAll(Sense sense, List<SumTerms> objectives) {
+	checkState(convexityConstraintSet);
+	final MPBuilder model = getModel();
+	final double[] values = new double[objectives.size()];
+	final List<PSRWeights> optimalWeights = new ArrayList<>(objectives.size());
+	final Map<SumTerms, Integer> alreadySolved = new HashMap<>();
+	for (int i = 0; i < objectives.size(); ++i) {
+	    final SumTerms objective = objectives.get(i);
+	    final Integer previous = alreadySolved.get(objective);
+	    if (previous == null) {
+		final Solution solution = optimize(model, sense, objective);
+		values[i] = solution.getObjectiveValue();
+		optimalWeights.add(toWeights(solution));
+		alreadySolved.put(objective, i);
+	    } else {
+		values[i] = values[previous];
+		optimalWeights.add(optimalWeights.get(previous));
+	    }
+	}
+	return Optima.given(values, optimalWeights);
+    }
+
+    private Variable getVariable(int rank) {
+	checkArgument(rank >= 1);
+	checkArgument(rank <= getM());
+	return variables.get(rank - 1);
+    }
+
+    /**
+     * @return the model of this snapshot, owned by the current thread, whose
+     *         objective may be set freely until the next call to this method from
+     *         this thread.
+     */
+    private MPBuilder getModel() {
+	final CachedModel cached = MODELS.get();
+	if (cached != null && cached.snapshot == this) {
+	    return cached.model;
+	}
+
+	final Deque<Constraint> missingRows = new ArrayDeque<>();
+	ImmutableConstraintsOnWeights current = this;
+	final int cachedNbRows = cached == null ? -1 : cached.snapshot.nbRows;
+	while (current.nbRows > cachedNbRows && current.parent != null) {
+	    missingRows.addFirst(current.row);
+	    current = current.parent;
+	}
+
+	final MPBuilder model;
+	if (cached != null && current == cached.snapshot) {
+	    model = cached.model;
+	} else {
+	    model = MP.builder();
+	    for (Variable variable : variables) {
+		model.addVariable(variable);
+	    }
+	    /** The whole chain up to the root, which had been walked only partly. */
+	    missingRows.clear();
+	    missingRows.addAll(getRows());
+	}
+	for (Constraint constraint : missingRows) {
+	    model.addConstraint(constraint);
+	}
+	MODELS.set(new CachedModel(this, model));
+	return model;
+    }
+
+    private static Solution optimize(MPBuilder model, Sense sense, SumTerms sum) {
+	final Objective obj;
+	if (sum.size() == 0) {
+	    obj = Objective.ZERO;
+	} else {
+	    obj = sense == Sense.MAX ? Objective.max(sum) : Objective.min(sum);
+	}
+	model.setObjective(obj);
+	final Result result = solveMeasured(model);
+	checkArgument(result.getResultStatus().equals(ResultStatus.OPTIMAL));
+	return result.getSolution().get();
+    }
+
+    private static Result solveMeasured(IMP mp) {
+	Counters.increment(Counter.LP_SOLVE);
+	final long start = System.nanoTime();
+	final Result result = SOLVERS.get().solve(mp);
+	SolverMetrics.record(System.nanoTime() - start);
+	return result;
+    }
+
+    private static double bound(IMP mp) {
+	final double bound;
+
+	final Result result = solveMeasured(mp);
+	switch (result.getResultStatus()) {
+	case INFEASIBLE:
+	case MEMORY_LIMIT_REACHED:
+	case TIME_LIMIT_REACHED:
+	    throw new IllegalStateException();
+	case UNBOUNDED:
+	    if (mp.getObjective().getSense() == Sense.MAX) {
+		bound = Double.POSITIVE_INFINITY;
+	    } else {
+		bound = Double.NEGATIVE_INFINITY;
+	    }
+	    break;
+	case OPTIMAL:
+	    bound = result.getSolution().get().getObjectiveValue();
+	    break;
+	default:
+	    throw new AssertionError();
+	}
+	return bound;
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("m", getM()).add("Rows", getRows())
+		.add("Convexity", convexityConstraintSet).toString();
+    }
+}
@@ -0,0 +1,267 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.BitSet;
+import java.util.List;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Graph;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.j_voting.VoterPartialPreference;
+
+/**
+ * For each voter, her transitively closed partial preference, as bit sets of
+ * successors and predecessors indexed by alternative, and the pairs of
+ * alternatives that are still incomparable in it, as a bit set where the pair
+ * of alternatives of indices i < j is the bit i × m + j, with its size; and the
+ * set of voters who have at least one such pair, with its size, so that the
+ * completeness of the profile is known in constant time.
+ *
+ * <p>
+ * An edge added through {@link #addEdge(int, Alternative, Alternative)} updates
+ * the voter incrementally, in time proportional to the number of pairs that
+ * become comparable. A voter whose preference changes otherwise is marked
+ * dirty (through the change listener of her partial preference), and is
+ * recomputed from her transitive graph when next queried.
+ * </p>
+ */
+class IncomparabilityIndex {
+    static IncomparabilityIndex given(DenseIndex index, List<VoterPartialPreference> preferences) {
+	return new IncomparabilityIndex(index, preferences);
+    }
+
+    private final DenseIndex index;
+
+    private final ImmutableList<VoterPartialPreference> preferences;
+
+    /**
+     * At [v][i], the indices of the alternatives that the voter v prefers less
+     * than the alternative i.
+     */
+    private final BitSet[][] successors;
+
+    /**
+     * At [v][i], the indices of the alternatives that the voter v prefers to the
+     * alternative i.
+     */
+    private final BitSet[][] predecessors;
+
+    private final BitSet[] incomparablePairs;
+
+    private final int[] nbIncomparablePairs;
+
+    private final BitSet questionableVoters;
+
+    /**
+     * The cardinality of {@link #questionableVoters}.
+     */
+    private int nbQuestionableVoters;
+
+    private final BitSet dirtyVoters;
+
+    private IncomparabilityIndex(DenseIndex index, List<VoterPartialPreference> preferences) {
+	this.index = requireNonNull(index);
+	this.preferences = ImmutableList.copyOf(preferences);
+	final int n = index.getNbVoters();
+	checkArgument(this.preferences.size() == n);
+	final int m = index.getNbAlternatives();
+	successors = new BitSet[n][m];
+	predecessors = new BitSet[n][m];
+	incomparablePairs = new BitSet[n];
+	nbIncomparablePairs = new int[n];
+	for (int v = 0; v < n; ++v) {
+	    for (int i = 0; i < m; ++i) {
+		successors[v][i] = new BitSet(m);
+		predecessors[v][i] = new BitSet(m);
+	    }
+	    incomparablePairs[v] = new BitSet(m * m);
+	    final int voterIndex = v;
+	    this.preferences.get(v).setChangeListener(() -> setDirty(voterIndex));
+	}
+	questionableVoters = new BitSet(n);
+	nbQuestionableVoters = 0;
+	dirtyVoters = new BitSet(n);
+	dirtyVoters.set(0, n);
+    }
+
+    void setDirty(int voterIndex) {
+	dirtyVoters.set(voterIndex);
+    }
+
+    /**
+     * @return {@code true} iff the voter will not be recomputed at the next query.
+     */
+    boolean isUpToDate(int voterIndex) {
+	return !dirtyVoters.get(voterIndex);
+    }
+
+    /**
+     * Records that the voter prefers better to worse, and all that follows by
+     * transitivity. The voter must have been up to date before the edge was
+     * added to her preference; she is up to date after this call.
+     */
+    void addEdge(int voterIndex, Alternative better, Alternative worse) {
+	final int iBetter = index.getIndex(better);
+	final int iWorse = index.getIndex(worse);
+	final int m = index.getNbAlternatives();
+	final BitSet[] succ = successors[voterIndex];
+	final BitSet[] pred = predecessors[voterIndex];
+	final BitSet pairs = incomparablePairs[voterIndex];
+	if (!succ[iBetter].get(iWorse)) {
+	    final BitSet up = (BitSet) pred[iBetter].clone();
+	    up.set(iBetter);
+	    final BitSet down = (BitSet) succ[iWorse].clone();
+	    down.set(iWorse);
+	    for (int u = up.nextSetBit(0); u >= 0; u = up.nextSetBit(u + 1)) {
+		final BitSet newlyWorse = (BitSet) down.clone();
+		newlyWorse.andNot(succ[u]);
+		for (int w = newlyWorse.nextSetBit(0); w >= 0; w = newlyWorse.nextSetBit(w + 1)) {
+		    pred[w].set(u);
+		    final int bit = u < w ? u * m + w : w * m + u;
+		    if (pairs.get(bit)) {
+			pairs.clear(bit);
+			--nbIncomparablePairs[voterIndex];
+		    }
+		}
+		succ[u].or(newlyWorse);
+	    }
+	}
+	updateQuestionable(voterIndex);
+	dirtyVoters.clear(voterIndex);
+    }
+
+    /**
+     * Records that the voter, whose preference was empty, prefers the
+     * alternatives of the given indices in that order, and each of them to all
+     * the other alternatives, building her bit sets in a single pass over the
+     * ranked alternatives. She is up to date after this call.
+     *
+     * @param ranked distinct indices of alternatives.
+     */
+    void setTop(int voterIndex, int[] ranked) {
+	final int m = index.getNbAlternatives();
+	final BitSet[] succ = successors[voterIndex];
+	final BitSet[] pred = predecessors[voterIndex];
+	for (int i = 0; i < m; ++i) {
+	    succ[i].clear();
+	    pred[i].clear();
+	}
+	final BitSet above = new BitSet(m);
+	final BitSet below = new BitSet(m);
+	below.set(0, m);
+	for (int r : ranked) {
+	    below.clear(r);
+	    succ[r].or(below);
+	    pred[r].or(above);
+	    above.set(r);
+	}
+	final BitSet pairs = incomparablePairs[voterIndex];
+	pairs.clear();
+	for (int i = below.nextSetBit(0); i >= 0; i = below.nextSetBit(i + 1)) {
+	    pred[i].or(above);
+	    for (int j = below.nextSetBit(i + 1); j >= 0; j = below.nextSetBit(j + 1)) {
+		pairs.set(i * m + j);
+	    }
+	}
+	final int nbUnranked = below.cardinality();
+	nbIncomparablePairs[voterIndex] = nbUnranked * (nbUnranked - 1) / 2;
+	updateQuestionable(voterIndex);
+	dirtyVoters.clear(voterIndex);
+    }
+
+    /**
+     * @return the voters, in index order, whose preference is not complete.
+     */
+    ImmutableSet<Voter> getQuestionableVoters() {
+	refresh();
+	return questionableVoters.stream().mapToObj(index::getVoter).collect(ImmutableSet.toImmutableSet());
+    }
+
+    int getNbQuestionableVoters() {
+	refresh();
+	return nbQuestionableVoters;
+    }
+
+    boolean isQuestionable(int voterIndex) {
+	refresh(voterIndex);
+	return questionableVoters.get(voterIndex);
+    }
+
+    int getNbIncomparablePairs(int voterIndex) {
+	refresh(voterIndex);
+	return nbIncomparablePairs[voterIndex];
+    }
+
+    /**
+     * @return the incomparable pairs of the voter, each pair having its
+     *         alternative of smallest index first, ordered lexicographically by
+     *         index.
+     */
+    ImmutableSet<EndpointPair<Alternative>> getIncomparablePairs(int voterIndex) {
+	refresh(voterIndex);
+	final int m = index.getNbAlternatives();
+	return incomparablePairs[voterIndex].stream()
+		.mapToObj(b -> EndpointPair.unordered(index.getAlternative(b / m), index.getAlternative(b % m)))
+		.collect(ImmutableSet.toImmutableSet());
+    }
+
+    private void refresh() {
+	for (int v = dirtyVoters.nextSetBit(0); v >= 0; v = dirtyVoters.nextSetBit(v + 1)) {
+	    refresh(v);
+	}
+    }
+
+    private void refresh(int voterIndex) {
+	if (!dirtyVoters.get(voterIndex)) {
+	    return;
+	}
+	final Graph<Alternative> graph = preferences.get(voterIndex).asTransitiveGraph();
+	final ImmutableList<Alternative> alternatives = index.getAlternatives();
+	final int m = alternatives.size();
+	final BitSet[] succ = successors[voterIndex];
+	final BitSet[] pred = predecessors[voterIndex];
+	for (int i = 0; i < m; ++i) {
+	    succ[i].clear();
+	    pred[i].clear();
+	}
+	for (EndpointPair<Alternative> edge : graph.edges()) {
+	    final int u = index.getIndex(edge.nodeU());
+	    final int w = index.getIndex(edge.nodeV());
+	    succ[u].set(w);
+	    pred[w].set(u);
+	}
+	final BitSet pairs = incomparablePairs[voterIndex];
+	pairs.clear();
+	for (int i = 0; i < m; ++i) {
+	    for (int j = i + 1; j < m; ++j) {
+		if (!succ[i].get(j) && !succ[j].get(i)) {
+		    pairs.set(i * m + j);
+		}
+	    }
+	}
+	nbIncomparablePairs[voterIndex] = pairs.cardinality();
+	updateQuestionable(voterIndex);
+	dirtyVoters.clear(voterIndex);
+    }
+
+    private void updateQuestionable(int voterIndex) {
+	final boolean questionable = nbIncomparablePairs[voterIndex] != 0;
+	if (questionable != questionableVoters.get(voterIndex)) {
+	    nbQuestionableVoters += questionable ? 1 : -1;
+	    questionableVoters.set(voterIndex, questionable);
+	}
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Questionable voters", questionableVoters)
+		.add("Dirty voters", dirtyVoters).toString();
+    }
+}
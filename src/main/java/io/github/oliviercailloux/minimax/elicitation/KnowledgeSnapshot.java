@@ -0,0 +1,94 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apfloat.Aprational;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Range;
+import com.google.common.graph.ImmutableGraph;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+
+/**
+ * The state of an {@link UpdateablePreferenceKnowledge} at some point, obtained
+ * by {@link UpdateablePreferenceKnowledge#getSnapshot()} without copying any
+ * graph, from which {@link UpdateablePreferenceKnowledge#copyOf(KnowledgeSnapshot)}
+ * builds, possibly in another thread, a knowledge equal to the original one at
+ * that point, except that the graph of each voter is the transitive closure of
+ * her original graph.
+ *
+ * <p>
+ * Immutable.
+ * </p>
+ */
+public class KnowledgeSnapshot {
+    static KnowledgeSnapshot given(ImmutableSet<Alternative> alternatives, DenseIndex index,
+	    ImmutableMap<Voter, ImmutableGraph<Alternative>> transitiveGraphs,
+	    ImmutableConstraintsOnWeights constraints,
+	    @Nullable ImmutableMap<Integer, Range<Aprational>> lambdaRanges, LambdaRangesSummary lambdaRangesSummary,
+	    @Nullable WeightsBounds weightsBounds, long nbUpdates, @Nullable PreferenceInformation lastInformation,
+	    ImmutableList<CommitteePreferenceInformation> committeeInformation) {
+	return new KnowledgeSnapshot(alternatives, index, transitiveGraphs, constraints, lambdaRanges,
+		lambdaRangesSummary, weightsBounds, nbUpdates, lastInformation, committeeInformation);
+    }
+
+    final ImmutableSet<Alternative> alternatives;
+
+    final DenseIndex index;
+
+    final ImmutableMap<Voter, ImmutableGraph<Alternative>> transitiveGraphs;
+
+    final ImmutableConstraintsOnWeights constraints;
+
+    /**
+     * {@code null} iff m = 1.
+     */
+    final @Nullable ImmutableMap<Integer, Range<Aprational>> lambdaRanges;
+
+    /**
+     * A private copy, never modified.
+     */
+    final LambdaRangesSummary lambdaRangesSummary;
+
+    final @Nullable WeightsBounds weightsBounds;
+
+    final long nbUpdates;
+
+    final @Nullable PreferenceInformation lastInformation;
+
+    final ImmutableList<CommitteePreferenceInformation> committeeInformation;
+
+    private KnowledgeSnapshot(ImmutableSet<Alternative> alternatives, DenseIndex index,
+	    ImmutableMap<Voter, ImmutableGraph<Alternative>> transitiveGraphs,
+	    ImmutableConstraintsOnWeights constraints,
+	    @Nullable ImmutableMap<Integer, Range<Aprational>> lambdaRanges, LambdaRangesSummary lambdaRangesSummary,
+	    @Nullable WeightsBounds weightsBounds, long nbUpdates, @Nullable PreferenceInformation lastInformation,
+	    ImmutableList<CommitteePreferenceInformation> committeeInformation) {
+	this.alternatives = requireNonNull(alternatives);
+	this.index = requireNonNull(index);
+	this.transitiveGraphs = requireNonNull(transitiveGraphs);
+	this.constraints = requireNonNull(constraints);
+	this.lambdaRanges = lambdaRanges;
+	this.lambdaRangesSummary = LambdaRangesSummary.copyOf(lambdaRangesSummary);
+	this.weightsBounds = weightsBounds;
+	this.nbUpdates = nbUpdates;
+	this.lastInformation = lastInformation;
+	this.committeeInformation = requireNonNull(committeeInformation);
+    }
+
+    public long getNbUpdates() {
+	return nbUpdates;
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Nb updates", nbUpdates).add("Graphs", transitiveGraphs)
+		.add("Lambda ranges", lambdaRanges).toString();
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
+import org.apfloat.AprationalMath;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Range;
+
+/**
+ * For each rank from 1 to m − 2, the width of its lambda range, as a double, and
+ * the midpoint of that range; and the rank whose range is the widest (the
+ * smallest such rank in case of ties). The width and midpoint of a rank are
+ * computed when its range changes, thus only once per committee answer about
+ * that rank, instead of each time a strategy looks for a question.
+ */
+class LambdaRangesSummary {
+    private static final Apint TWO = new Apint(2);
+
+    static LambdaRangesSummary given(Map<Integer, Range<Aprational>> lambdaRanges) {
+	return new LambdaRangesSummary(lambdaRanges);
+    }
+
+    static LambdaRangesSummary copyOf(LambdaRangesSummary summary) {
+	return new LambdaRangesSummary(summary);
+    }
+
+    /**
+     * At index rank − 1.
+     */
+    private final double[] widths;
+
+    /**
+     * At index rank − 1.
+     */
+    private final Aprational[] midpoints;
+
+    /**
+     * Zero iff there is no rank.
+     */
+    private int widestRank;
+
+    private LambdaRangesSummary(Map<Integer, Range<Aprational>> lambdaRanges) {
+	final int nbRanks = lambdaRanges.size();
+	widths = new double[nbRanks];
+	midpoints = new Aprational[nbRanks];
+	for (int rank = 1; rank <= nbRanks; ++rank) {
+	    final Range<Aprational> range = lambdaRanges.get(rank);
+	    checkArgument(range != null);
+	    set(rank, range);
+	}
+	updateWidestRank();
+    }
+
+    private LambdaRangesSummary(LambdaRangesSummary source) {
+	widths = source.widths.clone();
+	midpoints = source.midpoints.clone();
+	widestRank = source.widestRank;
+    }
+
+    void update(int rank, Range<Aprational> lambdaRange) {
+	checkArgument(rank >= 1 && rank <= widths.length);
+	set(rank, lambdaRange);
+	updateWidestRank();
+    }
+
+    private void set(int rank, Range<Aprational> lambdaRange) {
+	final Aprational lower = lambdaRange.lowerEndpoint();
+	final Aprational upper = lambdaRange.upperEndpoint();
+	widths[rank - 1] = upper.subtract(lower).doubleValue();
+	midpoints[rank - 1] = AprationalMath.sum(lower, upper).divide(TWO);
+    }
+
+    private void updateWidestRank() {
+	widestRank = 0;
+	for (int i = 0; i < widths.length; ++i) {
+	    if (widestRank == 0 || widths[i] > widths[widestRank - 1]) {
+		widestRank = i + 1;
+	    }
+	}
+    }
+
+    double getWidth(int rank) {
+	return widths[rank - 1];
+    }
+
+    Aprational getMidpoint(int rank) {
+	return midpoints[rank - 1];
+    }
+
+    /**
+     * @throws IllegalStateException iff there is no rank (m ≤ 2).
+     */
+    int getWidestRank() {
+	checkState(widestRank != 0);
+	return widestRank;
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Widths", Arrays.toString(widths)).add("Widest rank", widestRank)
+		.toString();
+    }
+}
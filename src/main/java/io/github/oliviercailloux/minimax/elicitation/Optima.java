@@ -0,0 +1,89 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The optimal values of a list of objectives over the same constraints on
+ * weights, each associated to weights that realize it.
+ *
+ * Immutable.
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class Optima {
+    static Optima given(double[] values, List<PSRWeights> optimalWeights) {
+	return new Optima(values, optimalWeights);
+    }
+
+    private final double[] values;
+
+    private final ImmutableList<PSRWeights> optimalWeights;
+
+    private Optima(double[] values, List<PSRWeights> optimalWeights) {
+	this.values = values.clone();
+	this.optimalWeights = ImmutableList.copyOf(optimalWeights);
+	checkArgument(this.values.length == this.optimalWeights.size());
+    }
+
+    /**
+     * @return the number of objectives.
+     */
+    public int size() {
+	return values.length;
+    }
+
+    /**
+     * @param i 0 ≤ i < {@link #size()}: the index of the objective, in the order
+     *          they were given.
+     */
+    public double getValue(int i) {
+	return values[i];
+    }
+
+    /**
+     * @return a copy of the optimal values, in the order of the objectives.
+     */
+    public double[] getValues() {
+	return values.clone();
+    }
+
+    /**
+     * @param i 0 ≤ i < {@link #size()}: the index of the objective, in the order
+     *          they were given.
+     */
+    public PSRWeights getWeights(int i) {
+	return optimalWeights.get(i);
+    }
+
+    public ImmutableList<PSRWeights> getAllWeights() {
+	return optimalWeights;
+    }
+
+    @Override
+    public boolean equals(Object o2) {
+	if (!(o2 instanceof Optima)) {
+	    return false;
+	}
+	final Optima t2 = (Optima) o2;
+	return Arrays.equals(values, t2.values) && optimalWeights.equals(t2.optimalWeights);
+    }
+
+    @Override
+    public int hashCode() {
+	return Objects.hash(Arrays.hashCode(values), optimalWeights);
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Values", Arrays.toString(values))
+		.add("Weights", optimalWeights).toString();
+    }
+}
@@ -20,7 +20,6 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.VerifyException;
-import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
@@ -133,8 +132,11 @@ public class Oracle {
     }
 
     public double getScore(Alternative x) {
-	final ImmutableCollection<VoterStrictPreference> preferences = profile.values();
-	return preferences.stream().mapToDouble(p -> weights.getWeightAtRank(p.getAlternativeRank(x))).sum();
+	double score = 0d;
+	for (VoterStrictPreference p : profile.values()) {
+	    score += weights.getWeightAtRank(p.getAlternativeRank(x));
+	}
+	return score;
     }
 
     @JsonbTransient
@@ -22,6 +22,12 @@ public interface PreferenceKnowledge {
      */
     public ImmutableSet<Voter> getVoters();
 
+    /**
+     * @return the indices of the alternatives and voters of this knowledge, in the
+     *         order of {@link #getAlternatives()} and {@link #getVoters()}.
+     */
+    public DenseIndex getIndex();
+
     /**
      * Adds the constraint: (w_i − w_{i+1}) OP λ (w_{i+1} − w_{i+2}).
      *
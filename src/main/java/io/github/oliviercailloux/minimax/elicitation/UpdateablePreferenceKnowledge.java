@@ -2,40 +2,108 @@ package io.github.oliviercailloux.minimax.elicitation;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apfloat.Apint;
 import org.apfloat.Aprational;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.VerifyException;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Range;
-import com.google.common.graph.Graph;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ImmutableGraph;
+import com.google.common.graph.MutableGraph;
 
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
 import io.github.oliviercailloux.j_voting.VoterPartialPreference;
 import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.minimax.utils.Counters;
+import io.github.oliviercailloux.minimax.utils.Counters.Counter;
 
 public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
+    /**
+     * Counts the computations of transitive closures into the counters bound to
+     * the thread that computes them.
+     */
+    static final Runnable CLOSURE_COUNTER = () -> Counters.increment(Counter.TRANSITIVE_CLOSURE);
+
+    static void countClosures(Collection<VoterPartialPreference> preferences) {
+	for (VoterPartialPreference preference : preferences) {
+	    preference.setClosureListener(CLOSURE_COUNTER);
+	}
+    }
 
     public static UpdateablePreferenceKnowledge given(Set<Alternative> alternatives, Set<Voter> voters) {
 	return new UpdateablePreferenceKnowledge(alternatives, voters);
     }
 
+    /**
+     * @return a knowledge equal to the given one, that evolves independently of
+     *         it.
+     */
+    public static UpdateablePreferenceKnowledge copyOf(UpdateablePreferenceKnowledge knowledge) {
+	return new UpdateablePreferenceKnowledge(knowledge);
+    }
+
+    /**
+     * @return a knowledge equal to the one the snapshot was taken from, at that
+     *         time, that evolves independently of it.
+     */
+    public static UpdateablePreferenceKnowledge copyOf(KnowledgeSnapshot snapshot) {
+	return new UpdateablePreferenceKnowledge(snapshot);
+    }
+
     private ImmutableSet<Alternative> alternatives;
 
     private ImmutableMap<Voter, VoterPartialPreference> partialProfile;
 
+    private DenseIndex index;
+
+    private IncomparabilityIndex incomparability;
+
     private ConstraintsOnWeights cow;
 
     private Map<Integer, Range<Aprational>> lambdaRanges;
 
+    /**
+     * Kept in sync with the lambda ranges.
+     */
+    private LambdaRangesSummary lambdaRangesSummary;
+
+    /**
+     * Derived from the lambda ranges, {@code null} when not computed since the
+     * last change of these ranges.
+     */
+    private WeightsBounds weightsBounds;
+
+    private long nbUpdates;
+
+    /**
+     * The piece of information given by the last update, {@code null} if there
+     * has been no update or if the last one was a top-k ballot.
+     */
+    private @Nullable PreferenceInformation lastInformation;
+
+    /**
+     * The constraints added to the weights, in order, so that they may be
+     * replayed.
+     */
+    private List<CommitteePreferenceInformation> committeeInformation;
+
     private UpdateablePreferenceKnowledge(Set<Alternative> alternatives, Set<Voter> voters) {
 	this.alternatives = ImmutableSet.copyOf(alternatives);
 
@@ -53,6 +121,13 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
 	    builder.put(voter, VoterPartialPreference.about(voter, alternatives));
 	}
 	partialProfile = builder.build();
+	countClosures(partialProfile.values());
+	index = DenseIndex.given(this.alternatives, partialProfile.keySet());
+	incomparability = IncomparabilityIndex.given(index, partialProfile.values().asList());
+	weightsBounds = null;
+	nbUpdates = 0l;
+	lastInformation = null;
+	committeeInformation = new ArrayList<>();
 
 	if (m == 1) {
 	    lambdaRanges = null;
@@ -74,6 +149,64 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
 		lambdaRanges.put(rank, Range.closed(new Apint(1), new Apint(n)));
 	    }
 	}
+	lambdaRangesSummary = LambdaRangesSummary.given(lambdaRanges == null ? ImmutableMap.of() : lambdaRanges);
+    }
+
+    private UpdateablePreferenceKnowledge(UpdateablePreferenceKnowledge source) {
+	alternatives = source.alternatives;
+	cow = ConstraintsOnWeights.copyOf(source.cow);
+	final ImmutableMap.Builder<Voter, VoterPartialPreference> builder = ImmutableMap.builder();
+	for (VoterPartialPreference preference : source.partialProfile.values()) {
+	    builder.put(preference.getVoter(), VoterPartialPreference.copyOf(preference));
+	}
+	partialProfile = builder.build();
+	countClosures(partialProfile.values());
+	index = source.index;
+	incomparability = IncomparabilityIndex.given(index, partialProfile.values().asList());
+	lambdaRanges = source.lambdaRanges == null ? null : new LinkedHashMap<>(source.lambdaRanges);
+	lambdaRangesSummary = LambdaRangesSummary.copyOf(source.lambdaRangesSummary);
+	weightsBounds = source.weightsBounds;
+	nbUpdates = source.nbUpdates;
+	lastInformation = source.lastInformation;
+	committeeInformation = new ArrayList<>(source.committeeInformation);
+    }
+
+    private UpdateablePreferenceKnowledge(KnowledgeSnapshot source) {
+	alternatives = source.alternatives;
+	cow = ConstraintsOnWeights.given(source.constraints);
+	final ImmutableMap.Builder<Voter, VoterPartialPreference> builder = ImmutableMap.builder();
+	for (Entry<Voter, ImmutableGraph<Alternative>> entry : source.transitiveGraphs.entrySet()) {
+	    builder.put(entry.getKey(), VoterPartialPreference.ofTransitive(entry.getKey(), entry.getValue()));
+	}
+	partialProfile = builder.build();
+	countClosures(partialProfile.values());
+	index = source.index;
+	incomparability = IncomparabilityIndex.given(index, partialProfile.values().asList());
+	lambdaRanges = source.lambdaRanges == null ? null : new LinkedHashMap<>(source.lambdaRanges);
+	lambdaRangesSummary = LambdaRangesSummary.copyOf(source.lambdaRangesSummary);
+	weightsBounds = source.weightsBounds;
+	nbUpdates = source.nbUpdates;
+	lastInformation = source.lastInformation;
+	committeeInformation = new ArrayList<>(source.committeeInformation);
+    }
+
+    /**
+     * Returns the current state of this knowledge, in time linear in the number of
+     * voters and alternatives and in the number of committee answers received, as
+     * it shares the transitive closures of the preferences (computing those that
+     * are not up to date) and the current snapshot of the constraints on the
+     * weights. This is much cheaper than {@link #copyOf(UpdateablePreferenceKnowledge)},
+     * which copies every graph; the copy may then be made from the snapshot, in
+     * another thread, while this knowledge evolves.
+     */
+    public KnowledgeSnapshot getSnapshot() {
+	final ImmutableMap.Builder<Voter, ImmutableGraph<Alternative>> graphs = ImmutableMap.builder();
+	for (VoterPartialPreference preference : partialProfile.values()) {
+	    graphs.put(preference.getVoter(), preference.asTransitiveGraph());
+	}
+	return KnowledgeSnapshot.given(alternatives, index, graphs.build(), cow.getSnapshot(),
+		lambdaRanges == null ? null : ImmutableMap.copyOf(lambdaRanges), lambdaRangesSummary, weightsBounds,
+		nbUpdates, lastInformation, ImmutableList.copyOf(committeeInformation));
     }
 
     /**
@@ -92,6 +225,11 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
 	return partialProfile.keySet();
     }
 
+    @Override
+    public DenseIndex getIndex() {
+	return index;
+    }
+
     /**
      * Adds the constraint: (w_i − w_{i+1}) OP λ (w_{i+1} − w_{i+2}).
      *
@@ -103,6 +241,24 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
 	checkArgument(rank >= 1);
 	checkArgument(rank <= alternatives.size() - 2);
 
+	final Range<Aprational> restr = restrict(lambdaRanges.get(rank), op, lambda);
+
+	cow.addConstraint(rank, op, lambda.doubleValue());
+	lambdaRanges.put(rank, restr);
+	lambdaRangesSummary.update(rank, restr);
+	weightsBounds = null;
+	++nbUpdates;
+	final CommitteePreferenceInformation information = CommitteePreferenceInformation.given(rank, op, lambda);
+	lastInformation = PreferenceInformation.aboutCommittee(information);
+	committeeInformation.add(information);
+    }
+
+    /**
+     * @return the given range intersected with the values that satisfy: D_i/D_{i+1}
+     *         OP lambda.
+     * @throws IllegalArgumentException iff the intersection is empty.
+     */
+    static Range<Aprational> restrict(Range<Aprational> existingRange, ComparisonOperator op, Aprational lambda) {
 	/** The constraint is that D_i/D_{i+1} OP lambda. */
 	final Range<Aprational> providedRange;
 	switch (op) {
@@ -118,14 +274,11 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
 	default:
 	    throw new VerifyException();
 	}
-	final Range<Aprational> existingRange = lambdaRanges.get(rank);
 	checkArgument(existingRange.isConnected(providedRange),
 		"The provided constraint makes the program infeasible.");
 	final Range<Aprational> restr = existingRange.intersection(providedRange);
 	checkArgument(!restr.isEmpty(), "The provided constraint makes the program (just) infeasible.");
-
-	cow.addConstraint(rank, op, lambda.doubleValue());
-	lambdaRanges.put(rank, restr);
+	return restr;
     }
 
     @Override
@@ -151,18 +304,121 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
     }
 
     /**
-     * Check the number of edges in the transitive graphs associated to each voter
-     * preference.
+     * @param rank 1 ≤ rank ≤ m − 2.
+     * @return the width of the lambda range of the rank, as computed when that
+     *         range last changed.
+     */
+    public double getLambdaRangeWidth(int rank) {
+	checkArgument(rank >= 1);
+	checkArgument(rank <= alternatives.size() - 2);
+	return lambdaRangesSummary.getWidth(rank);
+    }
+
+    /**
+     * @param rank 1 ≤ rank ≤ m − 2.
+     */
+    public Aprational getLambdaRangeMidpoint(int rank) {
+	checkArgument(rank >= 1);
+	checkArgument(rank <= alternatives.size() - 2);
+	return lambdaRangesSummary.getMidpoint(rank);
+    }
+
+    /**
+     * @return the rank whose lambda range is the widest, the smallest one in case
+     *         of ties.
+     * @throws IllegalStateException iff m ≤ 2.
+     */
+    public int getWidestLambdaRangeRank() {
+	return lambdaRangesSummary.getWidestRank();
+    }
+
+    /**
+     * @return bounds on the weights derived from the lambda ranges, obtained
+     *         without solving any linear program, computed once per change of
+     *         these ranges.
+     */
+    public WeightsBounds getWeightsBounds() {
+	if (weightsBounds == null) {
+	    final ImmutableList<Range<Aprational>> ranges = lambdaRanges == null ? ImmutableList.of()
+		    : ImmutableList.copyOf(lambdaRanges.values());
+	    weightsBounds = WeightsBounds.given(alternatives.size(), ranges);
+	}
+	return weightsBounds;
+    }
+
+    /**
+     * Reads the number of voters whose preference is not complete, maintained by
+     * the incomparability index, which recomputes only the voters whose
+     * preference changed since the last query.
      */
     @Override
     public boolean isProfileComplete() {
-	for (Voter voter : partialProfile.keySet()) {
-	    final Graph<Alternative> graph = getPartialPreference(voter).asTransitiveGraph();
-	    if (graph.edges().size() != alternatives.size() * (alternatives.size() - 1) / 2) {
-		return false;
-	    }
-	}
-	return true;
+	return incomparability.getNbQuestionableVoters() == 0;
+    }
+
+    int getNbQuestionableVoters() {
+	return incomparability.getNbQuestionableVoters();
+    }
+
+    boolean isQuestionable(Voter voter) {
+	return incomparability.isQuestionable(index.getIndex(voter));
+    }
+
+    /**
+     * @return the voters whose preference is not known completely, in the order of
+     *         {@link #getVoters()}.
+     */
+    public ImmutableSet<Voter> getQuestionableVoters() {
+	return incomparability.getQuestionableVoters();
+    }
+
+    /**
+     * @return the pairs of alternatives that are incomparable in the (transitively
+     *         closed) partial preference of the voter, each pair having its
+     *         alternatives in the order of {@link #getAlternatives()}, ordered
+     *         lexicographically according to that order.
+     */
+    public ImmutableSet<EndpointPair<Alternative>> getIncomparablePairs(Voter voter) {
+	return incomparability.getIncomparablePairs(index.getIndex(voter));
+    }
+
+    /**
+     * @return the number of pieces of information (including constraints) added
+     *         to this knowledge so far.
+     */
+    public long getNbUpdates() {
+	return nbUpdates;
+    }
+
+    /**
+     * Sets the number of updates, for use when restoring a saved knowledge by
+     * replaying its content, which may take a different number of updates than
+     * were originally received (for example, a top-k ballot counts as one update
+     * but is replayed edge by edge).
+     *
+     * @param nbUpdates non-negative.
+     */
+    public void setNbUpdates(long nbUpdates) {
+	checkArgument(nbUpdates >= 0l);
+	this.nbUpdates = nbUpdates;
+    }
+
+    /**
+     * @return the constraints added to the weights so far, in the order they were
+     *         added.
+     */
+    public ImmutableList<CommitteePreferenceInformation> getCommitteeInformation() {
+	return ImmutableList.copyOf(committeeInformation);
+    }
+
+    /**
+     * @return the piece of information given by the last update (the last one of
+     *         the collection, for {@link #updateAll(Collection)}), or an empty
+     *         optional if there has been no update or if the last one was a top-k
+     *         ballot.
+     */
+    public Optional<PreferenceInformation> getLastInformation() {
+	return Optional.ofNullable(lastInformation);
     }
 
     public void update(PreferenceInformation information) {
@@ -172,8 +428,15 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
 	    final Alternative better = v.getBetterAlternative();
 	    final Alternative worst = v.getWorstAlternative();
 	    final VoterPartialPreference voterPartialPreference = getProfile().get(v.getVoter());
+	    final int voterIndex = index.getIndex(v.getVoter());
+	    final boolean upToDate = incomparability.isUpToDate(voterIndex);
 	    voterPartialPreference.asGraph().putEdge(better, worst);
 	    voterPartialPreference.setGraphChanged();
+	    if (upToDate) {
+		incomparability.addEdge(voterIndex, better, worst);
+	    }
+	    ++nbUpdates;
+	    lastInformation = information;
 	    break;
 	case COMMITTEE_QUESTION:
 	    final CommitteePreferenceInformation c = information.asCommitteeInformation();
@@ -187,6 +450,118 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
 	}
     }
 
+    /**
+     * Records a top-k ballot: the voter prefers the given alternatives, in that
+     * order, to each other and to all the other alternatives. Her graph receives
+     * the chain of the given alternatives followed by an edge from the last one
+     * to each other alternative, and her incomparabilities are built directly
+     * from the ranking rather than from the transitive closure of that graph.
+     * Counts as one update.
+     *
+     * @param top distinct alternatives, possibly empty (in which case nothing
+     *            changes).
+     * @throws IllegalArgumentException if the preference of the voter is already
+     *                                  partly known.
+     */
+    public void setTop(Voter voter, List<Alternative> top) {
+	final int voterIndex = index.getIndex(voter);
+	final VoterPartialPreference voterPartialPreference = partialProfile.get(voter);
+	final MutableGraph<Alternative> graph = voterPartialPreference.asGraph();
+	checkArgument(graph.edges().isEmpty(), "The preference of " + voter + " is already partly known.");
+	final int[] ranked = new int[top.size()];
+	final BitSet rankedSet = new BitSet(alternatives.size());
+	for (int i = 0; i < ranked.length; ++i) {
+	    ranked[i] = index.getIndex(top.get(i));
+	    checkArgument(!rankedSet.get(ranked[i]), "Duplicate alternative: " + top.get(i) + ".");
+	    rankedSet.set(ranked[i]);
+	}
+	if (ranked.length == 0) {
+	    return;
+	}
+
+	for (int i = 0; i < ranked.length - 1; ++i) {
+	    graph.putEdge(top.get(i), top.get(i + 1));
+	}
+	final Alternative last = top.get(ranked.length - 1);
+	for (int i = rankedSet.nextClearBit(0); i < alternatives.size(); i = rankedSet.nextClearBit(i + 1)) {
+	    graph.putEdge(last, index.getAlternative(i));
+	}
+	voterPartialPreference.setGraphChanged();
+	incomparability.setTop(voterIndex, ranked);
+	++nbUpdates;
+	lastInformation = null;
+    }
+
+    /**
+     * Has the same effect as giving each piece of information in turn to
+     * {@link #update(PreferenceInformation)}, but the answers are grouped per
+     * voter, so that the transitive closure of each preference is invalidated
+     * once for all her answers, the lambda range of each rank is narrowed once
+     * for all the committee answers about it, and the committee answers are
+     * added, in order, to the constraints on the weights as a single new
+     * snapshot. Each piece of information counts as an update.
+     *
+     * @throws IllegalArgumentException if some information does not concern this
+     *                                  knowledge, or if the committee answers make
+     *                                  the program infeasible; this knowledge is
+     *                                  then unchanged.
+     */
+    public void updateAll(Collection<PreferenceInformation> information) {
+	final Map<Integer, List<VoterPreferenceInformation>> answersByVoterIndex = new LinkedHashMap<>();
+	final Map<Integer, Range<Aprational>> restrictedRanges = new LinkedHashMap<>();
+	final List<CommitteePreferenceInformation> committeeAnswers = new ArrayList<>();
+	for (PreferenceInformation piece : information) {
+	    switch (piece.getType()) {
+	    case VOTER_QUESTION:
+		final VoterPreferenceInformation v = piece.asVoterInformation();
+		index.getIndex(v.getBetterAlternative());
+		index.getIndex(v.getWorstAlternative());
+		answersByVoterIndex.computeIfAbsent(index.getIndex(v.getVoter()), i -> new ArrayList<>()).add(v);
+		break;
+	    case COMMITTEE_QUESTION:
+		final CommitteePreferenceInformation c = piece.asCommitteeInformation();
+		final int rank = c.getRank();
+		checkArgument(rank >= 1);
+		checkArgument(rank <= alternatives.size() - 2);
+		final Range<Aprational> current = restrictedRanges.getOrDefault(rank, lambdaRanges.get(rank));
+		restrictedRanges.put(rank, restrict(current, c.getOperator(), c.getLambda()));
+		committeeAnswers.add(c);
+		break;
+	    default:
+		throw new VerifyException();
+	    }
+	}
+
+	for (Entry<Integer, List<VoterPreferenceInformation>> entry : answersByVoterIndex.entrySet()) {
+	    final int voterIndex = entry.getKey();
+	    final VoterPartialPreference voterPartialPreference = partialProfile.get(index.getVoter(voterIndex));
+	    final boolean upToDate = incomparability.isUpToDate(voterIndex);
+	    for (VoterPreferenceInformation v : entry.getValue()) {
+		voterPartialPreference.asGraph().putEdge(v.getBetterAlternative(), v.getWorstAlternative());
+	    }
+	    voterPartialPreference.setGraphChanged();
+	    if (upToDate) {
+		for (VoterPreferenceInformation v : entry.getValue()) {
+		    incomparability.addEdge(voterIndex, v.getBetterAlternative(), v.getWorstAlternative());
+		}
+	    }
+	}
+
+	for (Entry<Integer, Range<Aprational>> entry : restrictedRanges.entrySet()) {
+	    lambdaRanges.put(entry.getKey(), entry.getValue());
+	    lambdaRangesSummary.update(entry.getKey(), entry.getValue());
+	}
+	if (!committeeAnswers.isEmpty()) {
+	    cow.addConstraints(committeeAnswers);
+	    committeeInformation.addAll(committeeAnswers);
+	    weightsBounds = null;
+	}
+	nbUpdates += information.size();
+	if (!information.isEmpty()) {
+	    lastInformation = Iterables.getLast(information);
+	}
+    }
+
     @Override
     public String toString() {
 	return MoreObjects.toStringHelper(this).add("Partial profile", partialProfile)
@@ -0,0 +1,196 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.apfloat.Aprational;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+
+/**
+ * Bounds on the weights and on the differences of consecutive weights, derived
+ * analytically from the ranges of the ratios λ_i = d_i/d_{i+1}, where d_i = w_i
+ * − w_{i+1}, without solving any linear program.
+ *
+ * <p>
+ * Writing P_i for the product of the λ_j for i ≤ j ≤ m − 2 (and P_{m−1} = 1),
+ * we have d_i = P_i / ΣP, thus w_r = (Σ_{i ≥ r} P_i) / ΣP. Every weight
+ * decreases when any ratio increases, hence the minimal weight at rank r is
+ * obtained with all ratios at their upper bound, and the maximal one with all
+ * ratios at their lower bound. The difference d_i increases with λ_j for j ≥ i
+ * and decreases with λ_j for j < i, which similarly gives its extrema.
+ * </p>
+ * <p>
+ * These bounds consider the ratios as being within the lambda ranges of the
+ * knowledge, which are capped to n (see {@link UpdateablePreferenceKnowledge}),
+ * whereas the {@link ConstraintsOnWeights} do not include that cap and use an
+ * epsilon margin for convexity. The LP bounds may thus be slightly wider.
+ * </p>
+ *
+ * Immutable.
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class WeightsBounds {
+    /**
+     * @param m            at least one: the number of ranks.
+     * @param lambdaRanges the bounded ranges of the ratios λ_1 to λ_{m−2}, in
+     *                     that order, all of them being at least one.
+     */
+    public static WeightsBounds given(int m, List<Range<Aprational>> lambdaRanges) {
+	return new WeightsBounds(m, lambdaRanges);
+    }
+
+    private final int m;
+
+    /**
+     * Index i − 1 corresponds to rank i.
+     */
+    private final double[] minWeights;
+
+    private final double[] maxWeights;
+
+    /**
+     * Index i − 1 corresponds to d_i, for 1 ≤ i ≤ m − 1.
+     */
+    private final double[] minDifferences;
+
+    private final double[] maxDifferences;
+
+    private WeightsBounds(int m, List<Range<Aprational>> lambdaRanges) {
+	checkArgument(m >= 1);
+	checkArgument(lambdaRanges.size() == Math.max(m - 2, 0));
+	this.m = m;
+	final double[] lowers = new double[lambdaRanges.size()];
+	final double[] uppers = new double[lambdaRanges.size()];
+	for (int i = 0; i < lambdaRanges.size(); ++i) {
+	    final Range<Aprational> range = lambdaRanges.get(i);
+	    checkArgument(range.hasLowerBound() && range.hasUpperBound());
+	    lowers[i] = range.lowerEndpoint().doubleValue();
+	    uppers[i] = range.upperEndpoint().doubleValue();
+	    checkArgument(lowers[i] >= 1d);
+	}
+
+	minWeights = getWeights(uppers);
+	maxWeights = getWeights(lowers);
+
+	minDifferences = new double[Math.max(m - 1, 0)];
+	maxDifferences = new double[Math.max(m - 1, 0)];
+	final double[] lambdas = new double[lambdaRanges.size()];
+	for (int i = 1; i <= m - 1; ++i) {
+	    for (int j = 1; j <= m - 2; ++j) {
+		lambdas[j - 1] = j < i ? uppers[j - 1] : lowers[j - 1];
+	    }
+	    minDifferences[i - 1] = getDifferences(lambdas)[i - 1];
+	    for (int j = 1; j <= m - 2; ++j) {
+		lambdas[j - 1] = j < i ? lowers[j - 1] : uppers[j - 1];
+	    }
+	    maxDifferences[i - 1] = getDifferences(lambdas)[i - 1];
+	}
+    }
+
+    /**
+     * @param lambdas the ratios λ_1 to λ_{m−2}.
+     * @return the differences d_1 to d_{m−1}.
+     */
+    private double[] getDifferences(double[] lambdas) {
+	final int nbDifferences = m - 1;
+	/**
+	 * We compute the logarithms of the P_i first, to avoid overflows when the
+	 * products get large.
+	 */
+	final double[] logProducts = new double[nbDifferences];
+	for (int i = nbDifferences - 1; i >= 1; --i) {
+	    logProducts[i - 1] = logProducts[i] + Math.log(lambdas[i - 1]);
+	}
+	final double maxLog = logProducts.length == 0 ? 0d : logProducts[0];
+	double sum = 0d;
+	final double[] differences = new double[nbDifferences];
+	for (int i = 0; i < nbDifferences; ++i) {
+	    differences[i] = Math.exp(logProducts[i] - maxLog);
+	    sum += differences[i];
+	}
+	for (int i = 0; i < nbDifferences; ++i) {
+	    differences[i] /= sum;
+	}
+	return differences;
+    }
+
+    /**
+     * @param lambdas the ratios λ_1 to λ_{m−2}.
+     * @return the weights w_1 to w_m.
+     */
+    private double[] getWeights(double[] lambdas) {
+	final double[] weights = new double[m];
+	weights[0] = 1d;
+	if (m >= 2) {
+	    final double[] differences = getDifferences(lambdas);
+	    weights[m - 1] = 0d;
+	    for (int r = m - 1; r >= 2; --r) {
+		weights[r - 1] = weights[r] + differences[r - 1];
+	    }
+	}
+	return weights;
+    }
+
+    /**
+     * @return at least one.
+     */
+    public int getM() {
+	return m;
+    }
+
+    /**
+     * @param rank 1 ≤ rank ≤ m.
+     */
+    public Range<Double> getWeightRange(int rank) {
+	checkArgument(rank >= 1);
+	checkArgument(rank <= m);
+	return Range.closed(minWeights[rank - 1], maxWeights[rank - 1]);
+    }
+
+    /**
+     * @param i 1 ≤ i ≤ m − 1.
+     * @return the range of d_i = w_i − w_{i+1}.
+     */
+    public Range<Double> getDifferenceRange(int i) {
+	checkArgument(i >= 1);
+	checkArgument(i <= m - 1);
+	return Range.closed(minDifferences[i - 1], maxDifferences[i - 1]);
+    }
+
+    public ImmutableList<Range<Double>> getWeightRanges() {
+	final ImmutableList.Builder<Range<Double>> builder = ImmutableList.builder();
+	for (int rank = 1; rank <= m; ++rank) {
+	    builder.add(getWeightRange(rank));
+	}
+	return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object o2) {
+	if (!(o2 instanceof WeightsBounds)) {
+	    return false;
+	}
+	final WeightsBounds t2 = (WeightsBounds) o2;
+	return Arrays.equals(minWeights, t2.minWeights) && Arrays.equals(maxWeights, t2.maxWeights)
+		&& Arrays.equals(minDifferences, t2.minDifferences) && Arrays.equals(maxDifferences, t2.maxDifferences);
+    }
+
+    @Override
+    public int hashCode() {
+	return Objects.hash(Arrays.hashCode(minWeights), Arrays.hashCode(maxWeights), Arrays.hashCode(minDifferences),
+		Arrays.hashCode(maxDifferences));
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Weight ranges", getWeightRanges()).toString();
+    }
+}
@@ -0,0 +1,336 @@
+package io.github.oliviercailloux.minimax.experiment;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.VerifyException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.EndpointPair;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.minimax.elicitation.CommitteePreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.QuestionCommittee;
+import io.github.oliviercailloux.minimax.elicitation.QuestionType;
+import io.github.oliviercailloux.minimax.elicitation.QuestionVoter;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+import io.github.oliviercailloux.minimax.strategies.StrategyState;
+
+/**
+ * The full state of an elicitation after some questions: the knowledge (the
+ * edges of the partial preference of each voter, and the constraints on the
+ * weights, from which the lambda ranges and the constraint rows are rebuilt,
+ * and the number of updates it received), the questions asked with their
+ * durations, and, if available, the state of the strategy.
+ *
+ * <p>
+ * A checkpoint is written in a compact binary format. Restoring it replays the
+ * edges and constraints into a new knowledge, which costs no linear program.
+ * As each call to {@link #restoreKnowledge()} returns a new knowledge, a
+ * checkpoint may be used to fork several elicitations from a common state.
+ * </p>
+ *
+ * Immutable.
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class Checkpoint {
+    private static final int MAGIC = 0x4D4D5843;
+
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * @param durationsMs the durations of the questions, in the same order.
+     */
+    public static Checkpoint of(UpdateablePreferenceKnowledge knowledge, List<Question> questions,
+	    List<Integer> durationsMs, Optional<StrategyState> strategyState) {
+	final ImmutableMap.Builder<Voter, ImmutableList<EndpointPair<Alternative>>> edges = ImmutableMap.builder();
+	for (Voter voter : knowledge.getVoters()) {
+	    edges.put(voter, ImmutableList.copyOf(knowledge.getPartialPreference(voter).asGraph().edges()));
+	}
+	return new Checkpoint(knowledge.getAlternatives(), edges.build(), knowledge.getCommitteeInformation(),
+		knowledge.getNbUpdates(), questions, durationsMs, strategyState);
+    }
+
+    private final ImmutableSet<Alternative> alternatives;
+
+    /**
+     * The voters in their original order, with the edges of their partial
+     * preference.
+     */
+    private final ImmutableMap<Voter, ImmutableList<EndpointPair<Alternative>>> edges;
+
+    private final ImmutableList<CommitteePreferenceInformation> committeeInformation;
+
+    /**
+     * As counted by the knowledge, which may differ from the number of edges and
+     * constraints that are replayed.
+     */
+    private final long nbUpdates;
+
+    private final ImmutableList<Question> questions;
+
+    private final ImmutableList<Integer> durationsMs;
+
+    private final Optional<StrategyState> strategyState;
+
+    private Checkpoint(Set<Alternative> alternatives,
+	    ImmutableMap<Voter, ImmutableList<EndpointPair<Alternative>>> edges,
+	    List<CommitteePreferenceInformation> committeeInformation, long nbUpdates, List<Question> questions,
+	    List<Integer> durationsMs, Optional<StrategyState> strategyState) {
+	this.alternatives = ImmutableSet.copyOf(alternatives);
+	this.edges = requireNonNull(edges);
+	this.committeeInformation = ImmutableList.copyOf(committeeInformation);
+	checkArgument(nbUpdates >= 0l);
+	this.nbUpdates = nbUpdates;
+	this.questions = ImmutableList.copyOf(questions);
+	this.durationsMs = ImmutableList.copyOf(durationsMs);
+	this.strategyState = requireNonNull(strategyState);
+	checkArgument(this.questions.size() == this.durationsMs.size());
+    }
+
+    /**
+     * @return a new knowledge, equal to the one that was saved, including its
+     *         number of updates.
+     */
+    public UpdateablePreferenceKnowledge restoreKnowledge() {
+	final UpdateablePreferenceKnowledge knowledge = UpdateablePreferenceKnowledge.given(alternatives,
+		edges.keySet());
+	for (Voter voter : edges.keySet()) {
+	    for (EndpointPair<Alternative> edge : edges.get(voter)) {
+		knowledge.update(PreferenceInformation.aboutVoter(voter, edge.nodeU(), edge.nodeV()));
+	    }
+	}
+	for (CommitteePreferenceInformation information : committeeInformation) {
+	    knowledge.addConstraint(information.getRank(), information.getOperator(), information.getLambda());
+	}
+	knowledge.setNbUpdates(nbUpdates);
+	return knowledge;
+    }
+
+    public ImmutableList<Question> getQuestions() {
+	return questions;
+    }
+
+    public ImmutableList<Integer> getDurationsMs() {
+	return durationsMs;
+    }
+
+    public Optional<StrategyState> getStrategyState() {
+	return strategyState;
+    }
+
+    public void write(OutputStream output) throws IOException {
+	final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+	out.writeInt(MAGIC);
+	out.writeInt(FORMAT_VERSION);
+
+	out.writeInt(alternatives.size());
+	for (Alternative alternative : alternatives) {
+	    out.writeInt(alternative.getId());
+	}
+	out.writeInt(edges.size());
+	for (Voter voter : edges.keySet()) {
+	    out.writeInt(voter.getId());
+	    final ImmutableList<EndpointPair<Alternative>> voterEdges = edges.get(voter);
+	    out.writeInt(voterEdges.size());
+	    for (EndpointPair<Alternative> edge : voterEdges) {
+		out.writeInt(edge.nodeU().getId());
+		out.writeInt(edge.nodeV().getId());
+	    }
+	}
+
+	out.writeInt(committeeInformation.size());
+	for (CommitteePreferenceInformation information : committeeInformation) {
+	    out.writeInt(information.getRank());
+	    out.writeByte(information.getOperator().ordinal());
+	    writeLambda(out, information.getLambda());
+	}
+	out.writeLong(nbUpdates);
+
+	out.writeInt(questions.size());
+	for (int i = 0; i < questions.size(); ++i) {
+	    final Question question = questions.get(i);
+	    out.writeByte(question.getType().ordinal());
+	    switch (question.getType()) {
+	    case VOTER_QUESTION:
+		final QuestionVoter qv = question.asQuestionVoter();
+		out.writeInt(qv.getVoter().getId());
+		out.writeInt(qv.getFirstAlternative().getId());
+		out.writeInt(qv.getSecondAlternative().getId());
+		break;
+	    case COMMITTEE_QUESTION:
+		final QuestionCommittee qc = question.asQuestionCommittee();
+		out.writeInt(qc.getRank());
+		writeLambda(out, qc.getLambda());
+		break;
+	    default:
+		throw new VerifyException();
+	    }
+	    out.writeInt(durationsMs.get(i));
+	}
+
+	out.writeBoolean(strategyState.isPresent());
+	if (strategyState.isPresent()) {
+	    out.writeInt(strategyState.get().getNbAsked());
+	    final byte[] randomState = strategyState.get().getRandomState();
+	    out.writeInt(randomState.length);
+	    out.write(randomState);
+	}
+	out.flush();
+    }
+
+    /**
+     * Writes to a temporary file first, then moves it to the target, so that a
+     * crash while writing leaves the previous checkpoint intact.
+     */
+    public void write(Path path) throws IOException {
+	final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+	try (OutputStream output = Files.newOutputStream(tmp)) {
+	    write(output);
+	}
+	Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Checkpoint read(InputStream input) throws IOException {
+	final DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+	checkArgument(in.readInt() == MAGIC, "Not a checkpoint.");
+	final int version = in.readInt();
+	checkArgument(version == FORMAT_VERSION, "Unsupported checkpoint version: " + version + ".");
+
+	final int m = in.readInt();
+	final Set<Alternative> alternatives = new LinkedHashSet<>();
+	for (int i = 0; i < m; ++i) {
+	    alternatives.add(Alternative.withId(in.readInt()));
+	}
+	final int n = in.readInt();
+	final ImmutableMap.Builder<Voter, ImmutableList<EndpointPair<Alternative>>> edges = ImmutableMap.builder();
+	for (int i = 0; i < n; ++i) {
+	    final Voter voter = Voter.withId(in.readInt());
+	    final int nbEdges = in.readInt();
+	    final ImmutableList.Builder<EndpointPair<Alternative>> voterEdges = ImmutableList.builder();
+	    for (int j = 0; j < nbEdges; ++j) {
+		final Alternative better = Alternative.withId(in.readInt());
+		final Alternative worse = Alternative.withId(in.readInt());
+		voterEdges.add(EndpointPair.ordered(better, worse));
+	    }
+	    edges.put(voter, voterEdges.build());
+	}
+
+	final int nbCommittee = in.readInt();
+	final ImmutableList.Builder<CommitteePreferenceInformation> committeeInformation = ImmutableList.builder();
+	for (int i = 0; i < nbCommittee; ++i) {
+	    final int rank = in.readInt();
+	    final ComparisonOperator op = ComparisonOperator.values()[in.readByte()];
+	    committeeInformation.add(CommitteePreferenceInformation.given(rank, op, readLambda(in)));
+	}
+	final long nbUpdates = in.readLong();
+
+	final int nbQuestions = in.readInt();
+	final ImmutableList.Builder<Question> questions = ImmutableList.builder();
+	final ImmutableList.Builder<Integer> durationsMs = ImmutableList.builder();
+	for (int i = 0; i < nbQuestions; ++i) {
+	    final QuestionType type = QuestionType.values()[in.readByte()];
+	    switch (type) {
+	    case VOTER_QUESTION:
+		final Voter voter = Voter.withId(in.readInt());
+		final Alternative a = Alternative.withId(in.readInt());
+		final Alternative b = Alternative.withId(in.readInt());
+		questions.add(Question.toVoter(voter, a, b));
+		break;
+	    case COMMITTEE_QUESTION:
+		final int rank = in.readInt();
+		questions.add(Question.toCommittee(readLambda(in), rank));
+		break;
+	    default:
+		throw new VerifyException();
+	    }
+	    durationsMs.add(in.readInt());
+	}
+
+	final Optional<StrategyState> strategyState;
+	if (in.readBoolean()) {
+	    final int nbAsked = in.readInt();
+	    final byte[] randomState = new byte[in.readInt()];
+	    in.readFully(randomState);
+	    strategyState = Optional.of(StrategyState.fromBytes(randomState, nbAsked));
+	} else {
+	    strategyState = Optional.empty();
+	}
+	return new Checkpoint(alternatives, edges.build(), committeeInformation.build(), nbUpdates,
+		questions.build(), durationsMs.build(), strategyState);
+    }
+
+    public static Checkpoint read(Path path) throws IOException {
+	try (InputStream input = Files.newInputStream(path)) {
+	    return read(input);
+	}
+    }
+
+    /**
+     * Lambdas are written as decimal strings, to remain exact whatever their
+     * size.
+     */
+    private static void writeLambda(DataOutputStream out, Aprational lambda) throws IOException {
+	out.writeUTF(lambda.numerator().toString());
+	out.writeUTF(lambda.denominator().toString());
+    }
+
+    private static Aprational readLambda(DataInputStream in) throws IOException {
+	final Apint numerator = new Apint(in.readUTF());
+	final Apint denominator = new Apint(in.readUTF());
+	return new Aprational(numerator, denominator);
+    }
+
+    @Override
+    public boolean equals(Object o2) {
+	if (!(o2 instanceof Checkpoint)) {
+	    return false;
+	}
+	final Checkpoint c2 = (Checkpoint) o2;
+	return alternatives.equals(c2.alternatives) && edges.equals(c2.edges)
+		&& committeeInformation.equals(c2.committeeInformation) && nbUpdates == c2.nbUpdates
+		&& questions.equals(c2.questions)
+		&& durationsMs.equals(c2.durationsMs) && strategyState.equals(c2.strategyState);
+    }
+
+    @Override
+    public int hashCode() {
+	return Objects.hash(alternatives, edges, committeeInformation, nbUpdates, questions, durationsMs,
+		strategyState);
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Alternatives", alternatives).add("Edges", edges)
+		.add("Committee information", committeeInformation).add("Nb updates", nbUpdates)
+		.add("Questions", questions)
+		.add("Strategy state", strategyState).toString();
+    }
+}
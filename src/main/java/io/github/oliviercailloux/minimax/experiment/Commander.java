@@ -31,11 +31,17 @@ import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
 import io.github.oliviercailloux.minimax.strategies.StrategyType;
 import io.github.oliviercailloux.minimax.utils.Generator;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics;
 
 public class Commander {
     @SuppressWarnings("unused")
     private static final Logger LOGGER = LoggerFactory.getLogger(Commander.class);
 
+    private static class MainOptions {
+	@Parameter(names = "--metrics", description = "Logs the LP solver metrics at the end.")
+	public boolean metrics = false;
+    }
+
     @Parameters
     private static class TimingCommand {
 	@Parameter(names = "-m")
@@ -131,10 +137,11 @@ public class Commander {
 
     private void execute(String[] args) throws IOException {
 	LOGGER.info("Proceeding with command {}.", Arrays.asList(args));
+	final MainOptions options = new MainOptions();
 	final TimingCommand timing = new TimingCommand();
 	final StrategyCommand strategy = new StrategyCommand();
-	final JCommander jc = JCommander.newBuilder().addCommand("timing", timing).addCommand("strategy", strategy)
-		.build();
+	final JCommander jc = JCommander.newBuilder().addObject(options).addCommand("timing", timing)
+		.addCommand("strategy", strategy).build();
 	jc.parse(args);
 
 	final String parsedCommand = jc.getParsedCommand();
@@ -153,6 +160,9 @@ public class Commander {
 	    break;
 	}
 
+	if (options.metrics) {
+	    LOGGER.info("Solver metrics:\n{}", SolverMetrics.asString());
+	}
     }
 
     private void strategy(StrategyCommand command) throws IOException {
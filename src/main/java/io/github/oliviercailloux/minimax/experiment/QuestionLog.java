@@ -0,0 +1,216 @@
+package io.github.oliviercailloux.minimax.experiment;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
+
+import com.google.common.base.MoreObjects;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.QuestionCommittee;
+import io.github.oliviercailloux.minimax.elicitation.QuestionType;
+import io.github.oliviercailloux.minimax.elicitation.QuestionVoter;
+
+/**
+ * A sequence of questions stored column-wise in primitive arrays: one bit per
+ * question for its type, then, for the questions to the voters, the voter id
+ * and both alternative ids, and for the questions to the committee, the rank
+ * and the numerator and denominator of lambda. The questions are only
+ * materialized as {@link Question} objects when accessed through
+ * {@link #get(int)} or the {@link #asList()} view.
+ *
+ * Immutable.
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class QuestionLog {
+    public static QuestionLog copyOf(List<Question> questions) {
+	return new QuestionLog(questions);
+    }
+
+    private final int size;
+
+    /**
+     * Bit i is set iff question i is a question to the committee.
+     */
+    private final BitSet committee;
+
+    /**
+     * Index of each question among the questions of its type.
+     */
+    private final int[] indexInType;
+
+    private final int[] voterIds;
+
+    private final int[] firstAlternativeIds;
+
+    private final int[] secondAlternativeIds;
+
+    private final int[] ranks;
+
+    private final long[] lambdaNumerators;
+
+    private final long[] lambdaDenominators;
+
+    private QuestionLog(List<Question> questions) {
+	size = questions.size();
+	committee = new BitSet(size);
+	indexInType = new int[size];
+	int nbCommittee = 0;
+	for (int i = 0; i < size; ++i) {
+	    if (questions.get(i).getType() == QuestionType.COMMITTEE_QUESTION) {
+		committee.set(i);
+		++nbCommittee;
+	    }
+	}
+	final int nbVoters = size - nbCommittee;
+	voterIds = new int[nbVoters];
+	firstAlternativeIds = new int[nbVoters];
+	secondAlternativeIds = new int[nbVoters];
+	ranks = new int[nbCommittee];
+	lambdaNumerators = new long[nbCommittee];
+	lambdaDenominators = new long[nbCommittee];
+
+	int iVoter = 0;
+	int iCommittee = 0;
+	for (int i = 0; i < size; ++i) {
+	    final Question question = questions.get(i);
+	    if (committee.get(i)) {
+		final QuestionCommittee qc = question.asQuestionCommittee();
+		ranks[iCommittee] = qc.getRank();
+		lambdaNumerators[iCommittee] = qc.getLambda().numerator().longValue();
+		lambdaDenominators[iCommittee] = qc.getLambda().denominator().longValue();
+		checkArgument(getLambda(iCommittee).equals(qc.getLambda()), "Lambda too large.");
+		indexInType[i] = iCommittee;
+		++iCommittee;
+	    } else {
+		final QuestionVoter qv = question.asQuestionVoter();
+		voterIds[iVoter] = qv.getVoter().getId();
+		firstAlternativeIds[iVoter] = qv.getFirstAlternative().getId();
+		secondAlternativeIds[iVoter] = qv.getSecondAlternative().getId();
+		indexInType[i] = iVoter;
+		++iVoter;
+	    }
+	}
+    }
+
+    public int size() {
+	return size;
+    }
+
+    public int getNbVoterQuestions() {
+	return voterIds.length;
+    }
+
+    public int getNbCommitteeQuestions() {
+	return ranks.length;
+    }
+
+    public QuestionType getType(int i) {
+	checkElementIndex(i, size);
+	return committee.get(i) ? QuestionType.COMMITTEE_QUESTION : QuestionType.VOTER_QUESTION;
+    }
+
+    /**
+     * @param i the index of a question to a voter.
+     */
+    public int getVoterId(int i) {
+	checkArgument(getType(i) == QuestionType.VOTER_QUESTION);
+	return voterIds[indexInType[i]];
+    }
+
+    /**
+     * @param i the index of a question to the committee.
+     */
+    public int getRank(int i) {
+	checkArgument(getType(i) == QuestionType.COMMITTEE_QUESTION);
+	return ranks[indexInType[i]];
+    }
+
+    public Question get(int i) {
+	final int j = indexInType[i];
+	if (getType(i) == QuestionType.COMMITTEE_QUESTION) {
+	    return Question.toCommittee(getLambda(j), ranks[j]);
+	}
+	return Question.toVoter(Voter.withId(voterIds[j]), Alternative.withId(firstAlternativeIds[j]),
+		Alternative.withId(secondAlternativeIds[j]));
+    }
+
+    private Aprational getLambda(int iCommittee) {
+	return new Aprational(new Apint(lambdaNumerators[iCommittee]), new Apint(lambdaDenominators[iCommittee]));
+    }
+
+    /**
+     * @return an unmodifiable view of the questions, materialized on access.
+     */
+    public List<Question> asList() {
+	return new QuestionsView();
+    }
+
+    private class QuestionsView extends AbstractList<Question> implements RandomAccess {
+	@Override
+	public Question get(int index) {
+	    return QuestionLog.this.get(index);
+	}
+
+	@Override
+	public int size() {
+	    return size;
+	}
+    }
+
+    /**
+     * As for {@link QuestionVoter}, the order of the two alternatives of a
+     * question to a voter is irrelevant to equality.
+     */
+    @Override
+    public boolean equals(Object o2) {
+	if (!(o2 instanceof QuestionLog)) {
+	    return false;
+	}
+	final QuestionLog l2 = (QuestionLog) o2;
+	if (!(committee.equals(l2.committee) && Arrays.equals(voterIds, l2.voterIds) && Arrays.equals(ranks, l2.ranks)
+		&& Arrays.equals(lambdaNumerators, l2.lambdaNumerators)
+		&& Arrays.equals(lambdaDenominators, l2.lambdaDenominators))) {
+	    return false;
+	}
+	for (int j = 0; j < voterIds.length; ++j) {
+	    final int a = firstAlternativeIds[j];
+	    final int b = secondAlternativeIds[j];
+	    final int a2 = l2.firstAlternativeIds[j];
+	    final int b2 = l2.secondAlternativeIds[j];
+	    if (!((a == a2 && b == b2) || (a == b2 && b == a2))) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    @Override
+    public int hashCode() {
+	int alternativesHash = 1;
+	for (int j = 0; j < voterIds.length; ++j) {
+	    alternativesHash = 31 * alternativesHash + Math.min(firstAlternativeIds[j], secondAlternativeIds[j]);
+	    alternativesHash = 31 * alternativesHash + Math.max(firstAlternativeIds[j], secondAlternativeIds[j]);
+	}
+	return Objects.hash(committee, Arrays.hashCode(voterIds), alternativesHash, Arrays.hashCode(ranks),
+		Arrays.hashCode(lambdaNumerators), Arrays.hashCode(lambdaDenominators));
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Questions", asList()).toString();
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.oliviercailloux.minimax.experiment;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * What it took to ask one question: the time spent, in nanoseconds, by the
+ * strategy to choose the question, by the oracle to answer it and by the
+ * knowledge to integrate the answer; and the number of linear programs solved,
+ * of transitive closures computed and of pairwise max regrets allocated during
+ * those three phases.
+ *
+ * Immutable.
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class QuestionStats {
+    public static QuestionStats given(long strategyNs, long oracleNs, long updateNs, long nbLpSolves,
+	    long nbTransitiveClosures, long nbPmrs) {
+	return new QuestionStats(strategyNs, oracleNs, updateNs, nbLpSolves, nbTransitiveClosures, nbPmrs);
+    }
+
+    private final long strategyNs;
+
+    private final long oracleNs;
+
+    private final long updateNs;
+
+    private final long nbLpSolves;
+
+    private final long nbTransitiveClosures;
+
+    private final long nbPmrs;
+
+    private QuestionStats(long strategyNs, long oracleNs, long updateNs, long nbLpSolves, long nbTransitiveClosures,
+	    long nbPmrs) {
+	checkArgument(strategyNs >= 0l && oracleNs >= 0l && updateNs >= 0l);
+	checkArgument(nbLpSolves >= 0l && nbTransitiveClosures >= 0l && nbPmrs >= 0l);
+	this.strategyNs = strategyNs;
+	this.oracleNs = oracleNs;
+	this.updateNs = updateNs;
+	this.nbLpSolves = nbLpSolves;
+	this.nbTransitiveClosures = nbTransitiveClosures;
+	this.nbPmrs = nbPmrs;
+    }
+
+    /**
+     * @return the time spent in {@code Strategy#nextQuestion}.
+     */
+    public long getStrategyNs() {
+	return strategyNs;
+    }
+
+    /**
+     * @return the time spent in {@code Oracle#getPreferenceInformation}.
+     */
+    public long getOracleNs() {
+	return oracleNs;
+    }
+
+    /**
+     * @return the time spent in {@code UpdateablePreferenceKnowledge#update}.
+     */
+    public long getUpdateNs() {
+	return updateNs;
+    }
+
+    public long getTotalNs() {
+	return strategyNs + oracleNs + updateNs;
+    }
+
+    public long getNbLpSolves() {
+	return nbLpSolves;
+    }
+
+    public long getNbTransitiveClosures() {
+	return nbTransitiveClosures;
+    }
+
+    public long getNbPmrs() {
+	return nbPmrs;
+    }
+
+    @Override
+    public boolean equals(Object o2) {
+	if (!(o2 instanceof QuestionStats)) {
+	    return false;
+	}
+	final QuestionStats s2 = (QuestionStats) o2;
+	return strategyNs == s2.strategyNs && oracleNs == s2.oracleNs && updateNs == s2.updateNs
+		&& nbLpSolves == s2.nbLpSolves && nbTransitiveClosures == s2.nbTransitiveClosures
+		&& nbPmrs == s2.nbPmrs;
+    }
+
+    @Override
+    public int hashCode() {
+	return Objects.hash(strategyNs, oracleNs, updateNs, nbLpSolves, nbTransitiveClosures, nbPmrs);
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Strategy ns", strategyNs).add("Oracle ns", oracleNs)
+		.add("Update ns", updateNs).add("LP solves", nbLpSolves)
+		.add("Transitive closures", nbTransitiveClosures).add("PMRs", nbPmrs).toString();
+    }
+}
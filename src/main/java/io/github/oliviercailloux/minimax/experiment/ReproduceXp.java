@@ -27,11 +27,17 @@ public class ReproduceXp {
 	final Path json = Path.of("experiments/Limited, constrained to [], m = 10, n = 20, k = 10, nbRuns = 2.json");
 	final Runs runs = JsonConverter.toRuns(Files.readString(json));
 	final StrategyFactory factory = runs.getFactory();
-	for (Run run : runs.getRuns()) {
+	/**
+	 * With per-run streams, each run is reproduced from its index only, thus even
+	 * if the runs were executed concurrently; otherwise, this requires the runs to
+	 * have been executed sequentially, in this order.
+	 */
+	for (int i = 0; i < runs.getRuns().size(); ++i) {
+	    final Run run = runs.getRuns().get(i);
 	    final Oracle oracle = run.getOracle();
 	    final int k = run.getK();
-	    LOGGER.info("Re-running with {}, {}.", oracle, k);
-	    final Run runAgain = Runner.run(factory, oracle, k);
+	    LOGGER.info("Re-running {} with {}, {}.", i, oracle, k);
+	    final Run runAgain = Runner.run(factory, oracle, k, i);
 	    LOGGER.info("Questions: {}.", runAgain.getQuestions());
 	    verify(run.getQuestions().equals(runAgain.getQuestions()),
 		    String.format("Mismatch with %s, %d.", oracle, k));
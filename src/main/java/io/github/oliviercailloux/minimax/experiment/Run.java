@@ -28,7 +28,6 @@ import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
 import io.github.oliviercailloux.minimax.elicitation.Question;
-import io.github.oliviercailloux.minimax.elicitation.QuestionType;
 import io.github.oliviercailloux.minimax.regret.RegretComputer;
 import io.github.oliviercailloux.minimax.regret.Regrets;
 
@@ -66,32 +65,58 @@ public class Run {
     @JsonbCreator
     public static Run of(@JsonbProperty("oracle") Oracle oracle, @JsonbProperty("questions") List<Question> questions,
 	    @JsonbProperty("timesMs") List<Integer> durationsMs) {
-	return new Run(oracle, questions, durationsMs);
+	return new Run(oracle, questions, durationsMs, ImmutableList.of());
     }
 
     public static Run of(Oracle oracle, List<Long> startTimes, List<Question> questions, long endTime) {
-	return new Run(oracle, questions, getQuestionTimesMs(startTimes, endTime));
+	return new Run(oracle, questions, getQuestionTimesMs(startTimes, endTime), ImmutableList.of());
+    }
+
+    /**
+     * @param stats one per question, in the order of the questions.
+     */
+    public static Run of(Oracle oracle, List<Long> startTimes, List<Question> questions, long endTime,
+	    List<QuestionStats> stats) {
+	checkArgument(stats.size() == questions.size());
+	return new Run(oracle, questions, getQuestionTimesMs(startTimes, endTime), stats);
+    }
+
+    /**
+     * @param stats one per question, in the order of the questions, or empty if
+     *              unknown.
+     */
+    public static Run of(Oracle oracle, List<Question> questions, List<Integer> durationsMs,
+	    List<QuestionStats> stats) {
+	checkArgument(stats.isEmpty() || stats.size() == questions.size());
+	return new Run(oracle, questions, durationsMs, stats);
     }
 
     private final Oracle oracle;
 
-    private final ImmutableList<Question> questions;
+    private final QuestionLog questionLog;
 
     @JsonbTransient
     private final ImmutableList<Integer> durationsMs;
 
+    /**
+     * Empty iff unknown, as when this run has been read from JSON.
+     */
+    @JsonbTransient
+    private final ImmutableList<QuestionStats> stats;
+
     @JsonbTransient
     private ImmutableList<Regrets> regrets;
 
     private ImmutableList<Double> losses;
 
-    private Run(Oracle oracle, List<Question> questions, List<Integer> durationsMs) {
+    private Run(Oracle oracle, List<Question> questions, List<Integer> durationsMs, List<QuestionStats> stats) {
 	checkArgument(!questions.isEmpty());
 	checkArgument(durationsMs.size() == questions.size());
 	checkArgument(questions.size() >= 1);
 	this.oracle = checkNotNull(oracle);
-	this.questions = ImmutableList.copyOf(questions);
+	this.questionLog = QuestionLog.copyOf(questions);
 	this.durationsMs = ImmutableList.copyOf(durationsMs);
+	this.stats = ImmutableList.copyOf(stats);
 	this.regrets = null;
 	verify((getNbQVoters() + getNbQCommittee()) == questions.size());
 	getQuestionTimesMs();
@@ -105,14 +130,22 @@ public class Run {
 
     @JsonbTransient
     public int getK() {
-	return questions.size();
+	return questionLog.size();
     }
 
     /**
-     * @return a list of size k.
+     * @return a list of size k, an unmodifiable view of the question log.
+     */
+    public List<Question> getQuestions() {
+	return questionLog.asList();
+    }
+
+    /**
+     * @return the questions, stored column-wise.
      */
-    public ImmutableList<Question> getQuestions() {
-	return questions;
+    @JsonbTransient
+    public QuestionLog getQuestionLog() {
+	return questionLog;
     }
 
     /**
@@ -123,14 +156,26 @@ public class Run {
 	return durationsMs;
     }
 
+    /**
+     * The detailed timings and counts are not persisted, and are thus not taken
+     * into account for equality.
+     *
+     * @return a list of size k, or an empty list if these statistics are not
+     *         available.
+     */
+    @JsonbTransient
+    public ImmutableList<QuestionStats> getQuestionStats() {
+	return stats;
+    }
+
     @JsonbTransient
     public int getNbQVoters() {
-	return (int) questions.stream().filter((q) -> q.getType().equals(QuestionType.VOTER_QUESTION)).count();
+	return questionLog.getNbVoterQuestions();
     }
 
     @JsonbTransient
     public int getNbQCommittee() {
-	return (int) questions.stream().filter((q) -> q.getType().equals(QuestionType.COMMITTEE_QUESTION)).count();
+	return questionLog.getNbCommitteeQuestions();
     }
 
     @JsonbTransient
@@ -158,7 +203,7 @@ public class Run {
      */
     @JsonbTransient
     public Regrets getMinimalMaxRegrets(int i) {
-	checkArgument(i <= questions.size());
+	checkArgument(i <= questionLog.size());
 	return getMinimalMaxRegrets().get(i);
     }
 
@@ -172,10 +217,11 @@ public class Run {
 		    .given(oracle.getAlternatives(), oracle.getProfile().keySet());
 	    final RegretComputer rc = new RegretComputer(knowledge);
 
-	    final ImmutableList.Builder<Regrets> builder = ImmutableList.builderWithExpectedSize(questions.size() + 1);
+	    final ImmutableList.Builder<Regrets> builder = ImmutableList
+		    .builderWithExpectedSize(questionLog.size() + 1);
 	    builder.add(rc.getMinimalMaxRegrets());
 
-	    for (Question question : questions) {
+	    for (Question question : questionLog.asList()) {
 		knowledge.update(oracle.getPreferenceInformation(question));
 		builder.add(rc.getMinimalMaxRegrets());
 	    }
@@ -226,17 +272,17 @@ public class Run {
 	}
 
 	final Run r2 = (Run) o2;
-	return oracle.equals(r2.oracle) && questions.equals(r2.questions) && durationsMs.equals(r2.durationsMs);
+	return oracle.equals(r2.oracle) && questionLog.equals(r2.questionLog) && durationsMs.equals(r2.durationsMs);
     }
 
     @Override
     public int hashCode() {
-	return Objects.hash(oracle, questions, durationsMs);
+	return Objects.hash(oracle, questionLog, durationsMs);
     }
 
     @Override
     public String toString() {
-	return MoreObjects.toStringHelper(this).add("oracle", oracle).add("questions", questions)
+	return MoreObjects.toStringHelper(this).add("oracle", oracle).add("questions", questionLog.asList())
 		.add("durationsMs", durationsMs).toString();
     }
 }
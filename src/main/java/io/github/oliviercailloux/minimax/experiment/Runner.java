@@ -1,10 +1,16 @@
 package io.github.oliviercailloux.minimax.experiment;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 import org.apfloat.Apcomplex;
@@ -12,6 +18,7 @@ import org.apfloat.Aprational;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.math.Stats;
@@ -25,6 +32,8 @@ import io.github.oliviercailloux.minimax.elicitation.Question;
 import io.github.oliviercailloux.minimax.experiment.json.JsonConverter;
 import io.github.oliviercailloux.minimax.strategies.Strategy;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+import io.github.oliviercailloux.minimax.utils.Counters;
+import io.github.oliviercailloux.minimax.utils.Counters.Counter;
 import io.github.oliviercailloux.minimax.utils.Generator;
 
 public class Runner {
@@ -64,69 +73,57 @@ public class Runner {
 	 * 0.0251189 ≤ 26/1000, we know that 11/26 ≤ n/d ≤ 12/25, and thus a suitable l
 	 * is 11/26.
 	 */
+	final List<PreferenceInformation> ratios = new ArrayList<>();
 	for (int i = 1; i <= oracle.getM() - 2; i++) {
 	    double n = (p.getWeightAtRank(i) - p.getWeightAtRank(i + 1));
 	    double d = (p.getWeightAtRank(i + 1) - p.getWeightAtRank(i + 2));
+	    final Aprational lambda;
 	    if (d < 1e-6) {
-		knowledge.addConstraint(i, ComparisonOperator.EQ, new Aprational(oracle.getN() - 1));
+		lambda = new Aprational(oracle.getN() - 1);
 	    } else {
-		Aprational lambda = new Aprational(n / d);
-		if (lambda.compareTo(new Aprational(oracle.getN() - 1)) == 1 || lambda.compareTo(Apcomplex.ZERO) < 1) {
-		    knowledge.addConstraint(i, ComparisonOperator.EQ, new Aprational(oracle.getN() - 1));
+		final Aprational ratio = new Aprational(n / d);
+		if (ratio.compareTo(new Aprational(oracle.getN() - 1)) == 1 || ratio.compareTo(Apcomplex.ZERO) < 1) {
+		    lambda = new Aprational(oracle.getN() - 1);
 		} else {
-		    knowledge.addConstraint(i, ComparisonOperator.EQ, lambda);
+		    lambda = ratio;
 		}
 	    }
+	    ratios.add(PreferenceInformation.aboutCommittee(i, ComparisonOperator.EQ, lambda));
 	}
+	knowledge.updateAll(ratios);
 	for (int i = 1; i <= oracle.getM() - 2; i++) {
 	    LOGGER.info("Range of lambda " + i + ": " + knowledge.getLambdaRange(i).toString());
 	}
 	strategy.setKnowledge(knowledge);
 
-	final ImmutableList.Builder<Question> qBuilder = ImmutableList.builder();
-	final ImmutableList.Builder<Long> tBuilder = ImmutableList.builder();
-
 	try {
-	    for (int i = 1; i <= k; i++) {
-		final long startTime = System.currentTimeMillis();
-		final Question q = strategy.nextQuestion();
-		final PreferenceInformation a = oracle.getPreferenceInformation(q);
-		knowledge.update(a);
-		LOGGER.debug("Asked {}.", q);
-		qBuilder.add(q);
-		tBuilder.add(startTime);
-	    }
+	    return ask(strategy, oracle, knowledge, k);
 	} catch (Exception e) {
 	    Files.writeString(Path.of("oracle-crashed.json"), JsonConverter.toJson(oracle).toString());
 	    throw e;
 	}
-	final long endTime = System.currentTimeMillis();
-
-	return Run.of(oracle, tBuilder.build(), qBuilder.build(), endTime);
     }
 
     public static Run run(StrategyFactory strategyFactory, Oracle oracle, int k) {
-	final Strategy strategy = strategyFactory.get();
+	return run(strategyFactory.get(), oracle, k);
+    }
 
+    /**
+     * Returns the run of the given index, in the sense of
+     * {@link StrategyFactory#get(int)}: with a factory that has per-run streams,
+     * the result does not depend on which runs were executed before or
+     * concurrently.
+     */
+    public static Run run(StrategyFactory strategyFactory, Oracle oracle, int k, int runIndex) {
+	return run(strategyFactory.get(runIndex), oracle, k);
+    }
+
+    private static Run run(Strategy strategy, Oracle oracle, int k) {
 	final UpdateablePreferenceKnowledge knowledge = UpdateablePreferenceKnowledge.given(oracle.getAlternatives(),
 		oracle.getProfile().keySet());
 	strategy.setKnowledge(knowledge);
 
-	final ImmutableList.Builder<Question> qBuilder = ImmutableList.builder();
-	final ImmutableList.Builder<Long> tBuilder = ImmutableList.builder();
-
-	for (int i = 1; i <= k; i++) {
-	    final long startTime = System.currentTimeMillis();
-	    final Question q = strategy.nextQuestion();
-	    final PreferenceInformation a = oracle.getPreferenceInformation(q);
-	    knowledge.update(a);
-	    LOGGER.debug("Asked {}.", q);
-	    qBuilder.add(q);
-	    tBuilder.add(startTime);
-	}
-	final long endTime = System.currentTimeMillis();
-
-	return Run.of(oracle, tBuilder.build(), qBuilder.build(), endTime);
+	return ask(strategy, oracle, knowledge, k);
     }
 
     public static Run run(Strategy strategy, Oracle oracle, UpdateablePreferenceKnowledge startingKnowledge, int k) {
@@ -135,21 +132,128 @@ public class Runner {
 	/** Rename for clarity. */
 	final UpdateablePreferenceKnowledge knowledge = startingKnowledge;
 
-	final ImmutableList.Builder<Question> qBuilder = ImmutableList.builder();
-	final ImmutableList.Builder<Long> tBuilder = ImmutableList.builder();
+	return ask(strategy, oracle, knowledge, k);
+    }
+
+    /**
+     * Asks k questions, writing a checkpoint of the elicitation to the given file
+     * every {@code period} questions. If the file exists when this method starts,
+     * the elicitation resumes from it (the oracle and factory must be the same as
+     * the ones that produced it). The durations of the questions asked before
+     * resuming are those recorded in the checkpoint, and the run has statistics
+     * about its questions only if it did not resume.
+     *
+     * @param period at least one.
+     */
+    public static Run runWithCheckpoints(StrategyFactory strategyFactory, Oracle oracle, int k, Path checkpointFile,
+	    int period) throws IOException {
+	return runWithCheckpoints(strategyFactory.get(), oracle, k, checkpointFile, period);
+    }
 
-	for (int i = 1; i <= k; i++) {
+    /**
+     * As {@link #runWithCheckpoints(StrategyFactory, Oracle, int, Path, int)},
+     * for the run of the given index, in the sense of
+     * {@link StrategyFactory#get(int)}.
+     */
+    public static Run runWithCheckpoints(StrategyFactory strategyFactory, Oracle oracle, int k, int runIndex,
+	    Path checkpointFile, int period) throws IOException {
+	return runWithCheckpoints(strategyFactory.get(runIndex), oracle, k, checkpointFile, period);
+    }
+
+    private static Run runWithCheckpoints(Strategy strategy, Oracle oracle, int k, Path checkpointFile, int period)
+	    throws IOException {
+	checkArgument(period >= 1);
+	final UpdateablePreferenceKnowledge knowledge;
+	final List<Question> questions = new ArrayList<>();
+	final List<Integer> durationsMs = new ArrayList<>();
+	if (Files.exists(checkpointFile)) {
+	    final Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+	    knowledge = checkpoint.restoreKnowledge();
+	    strategy.setKnowledge(knowledge);
+	    checkpoint.getStrategyState().ifPresent(strategy::setState);
+	    questions.addAll(checkpoint.getQuestions());
+	    durationsMs.addAll(checkpoint.getDurationsMs());
+	    LOGGER.info("Resuming after {} questions.", questions.size());
+	} else {
+	    knowledge = UpdateablePreferenceKnowledge.given(oracle.getAlternatives(), oracle.getProfile().keySet());
+	    strategy.setKnowledge(knowledge);
+	}
+	checkArgument(questions.size() <= k);
+
+	return ask(strategy, oracle, knowledge, k, questions, durationsMs, (asked, durations) -> {
+	    if (asked.size() % period == 0 || asked.size() == k) {
+		Checkpoint.of(knowledge, asked, durations, Optional.of(strategy.getState())).write(checkpointFile);
+	    }
+	});
+    }
+
+    /**
+     * Called after each question asked by
+     * {@link Runner#ask(Strategy, Oracle, UpdateablePreferenceKnowledge, int, List, List, AfterQuestion)}.
+     */
+    @FunctionalInterface
+    private static interface AfterQuestion {
+	/**
+	 * @param questions   the questions asked so far, including the last one.
+	 * @param durationsMs their durations.
+	 */
+	void accept(List<Question> questions, List<Integer> durationsMs) throws IOException;
+    }
+
+    private static Run ask(Strategy strategy, Oracle oracle, UpdateablePreferenceKnowledge knowledge, int k) {
+	try {
+	    return ask(strategy, oracle, knowledge, k, ImmutableList.of(), ImmutableList.of(), (q, d) -> {
+	    });
+	} catch (IOException e) {
+	    throw new VerifyException(e);
+	}
+    }
+
+    /**
+     * Asks questions until k have been asked, counting the given ones, asked
+     * before, recording, for each new question, the time spent in each phase and
+     * the counts of costly events recorded meanwhile into the counters of this
+     * thread, including by the threads the strategy handed work over to. The
+     * duration of a question excludes the time spent in the given listener.
+     *
+     * @return a run with statistics about the questions iff no question had been
+     *         asked before.
+     */
+    private static Run ask(Strategy strategy, Oracle oracle, UpdateablePreferenceKnowledge knowledge, int k,
+	    List<Question> askedBefore, List<Integer> durationsMsBefore, AfterQuestion afterQuestion)
+	    throws IOException {
+	checkArgument(askedBefore.size() == durationsMsBefore.size());
+	final List<Question> questions = new ArrayList<>(askedBefore);
+	final List<Integer> durationsMs = new ArrayList<>(durationsMsBefore);
+	final ImmutableList.Builder<QuestionStats> sBuilder = ImmutableList.builder();
+	final Counters counters = Counters.current();
+
+	while (questions.size() < k) {
 	    final long startTime = System.currentTimeMillis();
+	    final long[] countsBefore = counters.getAll();
+	    final long t0 = System.nanoTime();
 	    final Question q = strategy.nextQuestion();
+	    final long t1 = System.nanoTime();
 	    final PreferenceInformation a = oracle.getPreferenceInformation(q);
+	    final long t2 = System.nanoTime();
 	    knowledge.update(a);
+	    final long t3 = System.nanoTime();
+	    final long[] countsAfter = counters.getAll();
 	    LOGGER.debug("Asked {}.", q);
-	    qBuilder.add(q);
-	    tBuilder.add(startTime);
+	    questions.add(q);
+	    sBuilder.add(QuestionStats.given(t1 - t0, t2 - t1, t3 - t2,
+		    getIncrease(countsBefore, countsAfter, Counter.LP_SOLVE),
+		    getIncrease(countsBefore, countsAfter, Counter.TRANSITIVE_CLOSURE),
+		    getIncrease(countsBefore, countsAfter, Counter.PMR)));
+	    durationsMs.add(Math.toIntExact(System.currentTimeMillis() - startTime));
+	    afterQuestion.accept(Collections.unmodifiableList(questions), Collections.unmodifiableList(durationsMs));
 	}
-	final long endTime = System.currentTimeMillis();
 
-	return Run.of(oracle, tBuilder.build(), qBuilder.build(), endTime);
+	return Run.of(oracle, questions, durationsMs, askedBefore.isEmpty() ? sBuilder.build() : ImmutableList.of());
+    }
+
+    private static long getIncrease(long[] countsBefore, long[] countsAfter, Counter counter) {
+	return countsAfter[counter.ordinal()] - countsBefore[counter.ordinal()];
     }
 
     public static void show(Run run) {
@@ -50,7 +50,7 @@ public class StrategyXp {
 	for (int i = 0; i < nbRuns; ++i) {
 	    final Oracle oracle = Oracle.build(Generator.genProfile(m, n),
 		    Generator.genWeightsWithUnbalancedDistribution(m));
-	    final Run run = Runner.run(factory, oracle, k);
+	    final Run run = Runner.run(factory, oracle, k, i);
 	    LOGGER.info("Time (run {}): {}.", i, run.getTotalTime());
 	    Files.writeString(Path.of("run " + i + ".json"), JsonConverter.toJson(run).toString());
 	    runsBuilder.add(run);
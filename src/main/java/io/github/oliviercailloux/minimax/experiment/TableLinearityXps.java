@@ -96,7 +96,7 @@ public class TableLinearityXps {
 	for (int i = 0; i < nbRuns; ++i) {
 	    final Oracle oracle = oracles.get(i);
 	    LOGGER.info("Before run.");
-	    final Run run = Runner.run(factory, oracle, k);
+	    final Run run = Runner.run(factory, oracle, k, i);
 	    LOGGER.info("Time (run {}): {}.", i, run.getTotalTime());
 	    runsBuilder.add(run);
 	    final Runs runs = Runs.of(factory, runsBuilder.build());
@@ -0,0 +1,212 @@
+package io.github.oliviercailloux.minimax.experiment;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import com.google.common.math.Stats;
+
+import io.github.oliviercailloux.minimax.elicitation.Oracle;
+import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+
+/**
+ * Compares strategies on the same oracles: each oracle, obtained from the
+ * oracle source by its index, is used once with each strategy factory. The
+ * (factory × oracle) jobs of a round of oracles are all submitted at once to a
+ * fork-join pool, which balances them over its threads by work stealing; each
+ * thread keeps its own LP solver.
+ *
+ * <p>
+ * With early stopping, the tournament stops after the first round at the end
+ * of which the 95% confidence intervals of the mean final MMR of all factories
+ * are pairwise disjoint; otherwise, or if they never separate, it stops after
+ * the maximal number of oracles.
+ * </p>
+ *
+ * <p>
+ * The factories of {@link StrategyFactory} share a random source among the
+ * strategies they create, and these now draw from it concurrently: runs with
+ * seeded factories are not reproducible in a tournament, unless they use
+ * {@link StrategyFactory#perRunStreams() per-run streams}. The run against the
+ * oracle of index i is then the run of index i of its factory.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class Tournament {
+    @SuppressWarnings("unused")
+    private static final Logger LOGGER = LoggerFactory.getLogger(Tournament.class);
+
+    /**
+     * The quantile of order 97.5% of the standard normal distribution.
+     */
+    private static final double Z_95 = 1.959964d;
+
+    public static Tournament given(List<StrategyFactory> factories, List<Oracle> oracles, int k) {
+	final ImmutableList<Oracle> copy = ImmutableList.copyOf(oracles);
+	final Tournament tournament = new Tournament(factories, copy::get, k);
+	tournament.setMaxNbOracles(copy.size());
+	return tournament;
+    }
+
+    /**
+     * @param oracleSource gives the oracle of each index, starting from zero; it
+     *                     is called once per index, from the calling thread.
+     */
+    public static Tournament given(List<StrategyFactory> factories, IntFunction<Oracle> oracleSource, int k) {
+	return new Tournament(factories, oracleSource, k);
+    }
+
+    /**
+     * @return the interval of the mean at 95%, using the normal approximation;
+     *         the whole real line if there are less than two values.
+     */
+    public static Range<Double> getConfidenceInterval(Stats stats) {
+	if (stats.count() < 2) {
+	    return Range.all();
+	}
+	final double halfWidth = Z_95 * stats.sampleStandardDeviation() / Math.sqrt(stats.count());
+	return Range.closed(stats.mean() - halfWidth, stats.mean() + halfWidth);
+    }
+
+    private final ImmutableList<StrategyFactory> factories;
+
+    private final IntFunction<Oracle> oracleSource;
+
+    private final int k;
+
+    private int roundSize;
+
+    private int maxNbOracles;
+
+    private boolean earlyStopping;
+
+    private Tournament(List<StrategyFactory> factories, IntFunction<Oracle> oracleSource, int k) {
+	this.factories = ImmutableList.copyOf(factories);
+	checkArgument(!this.factories.isEmpty());
+	this.oracleSource = requireNonNull(oracleSource);
+	checkArgument(k >= 0);
+	this.k = k;
+	roundSize = 10;
+	maxNbOracles = 100;
+	earlyStopping = false;
+    }
+
+    /**
+     * @param roundSize at least one: the number of oracles per round (default
+     *                  10).
+     */
+    public void setRoundSize(int roundSize) {
+	checkArgument(roundSize >= 1);
+	this.roundSize = roundSize;
+    }
+
+    /**
+     * @param maxNbOracles at least one (default 100, or the number of oracles
+     *                     given as a list).
+     */
+    public void setMaxNbOracles(int maxNbOracles) {
+	checkArgument(maxNbOracles >= 1);
+	this.maxNbOracles = maxNbOracles;
+    }
+
+    public void setEarlyStopping(boolean earlyStopping) {
+	this.earlyStopping = earlyStopping;
+    }
+
+    /**
+     * Runs the tournament in the common fork-join pool.
+     */
+    public ImmutableList<Runs> run() {
+	return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return for each factory, in order, its runs, the run on the oracle i at
+     *         index i.
+     */
+    public ImmutableList<Runs> run(ForkJoinPool pool) {
+	final List<List<Run>> runsByFactory = new ArrayList<>();
+	for (int f = 0; f < factories.size(); ++f) {
+	    runsByFactory.add(new ArrayList<>());
+	}
+
+	int nbOracles = 0;
+	boolean separated = false;
+	while (nbOracles < maxNbOracles && !separated) {
+	    final int end = Math.min(nbOracles + roundSize, maxNbOracles);
+	    final ImmutableList.Builder<Oracle> roundBuilder = ImmutableList.builder();
+	    for (int i = nbOracles; i < end; ++i) {
+		roundBuilder.add(oracleSource.apply(i));
+	    }
+	    final ImmutableList<Oracle> round = roundBuilder.build();
+
+	    final List<List<ForkJoinTask<Run>>> tasks = new ArrayList<>();
+	    for (StrategyFactory factory : factories) {
+		final List<ForkJoinTask<Run>> factoryTasks = new ArrayList<>();
+		for (int i = 0; i < round.size(); ++i) {
+		    final Oracle oracle = round.get(i);
+		    final int runIndex = nbOracles + i;
+		    factoryTasks.add(pool.submit(() -> Runner.run(factory, oracle, k, runIndex)));
+		}
+		tasks.add(factoryTasks);
+	    }
+	    for (int f = 0; f < factories.size(); ++f) {
+		for (ForkJoinTask<Run> task : tasks.get(f)) {
+		    runsByFactory.get(f).add(task.join());
+		}
+	    }
+	    nbOracles = end;
+
+	    final ImmutableList<Runs> current = asRuns(runsByFactory);
+	    LOGGER.info("After {} oracles: {}.", nbOracles, current.stream()
+		    .map(r -> Runner.asStringEstimator(getFinalMmrStats(r))).collect(ImmutableList.toImmutableList()));
+	    separated = earlyStopping && areSeparated(current);
+	}
+	if (separated) {
+	    LOGGER.info("Stopped early after {} oracles.", nbOracles);
+	}
+	return asRuns(runsByFactory);
+    }
+
+    private ImmutableList<Runs> asRuns(List<List<Run>> runsByFactory) {
+	final ImmutableList.Builder<Runs> builder = ImmutableList.builder();
+	for (int f = 0; f < factories.size(); ++f) {
+	    builder.add(Runs.of(factories.get(f), runsByFactory.get(f)));
+	}
+	return builder.build();
+    }
+
+    private static Stats getFinalMmrStats(Runs runs) {
+	return runs.getMinimalMaxRegretStats().get(runs.getK());
+    }
+
+    /**
+     * @return {@code true} iff the confidence intervals of the final MMRs are
+     *         pairwise disjoint (thus, {@code true} if there is a single
+     *         factory).
+     */
+    static boolean areSeparated(List<Runs> allRuns) {
+	final ImmutableList<Range<Double>> intervals = allRuns.stream().map(Tournament::getFinalMmrStats)
+		.map(Tournament::getConfidenceInterval).collect(ImmutableList.toImmutableList());
+	for (int i = 0; i < intervals.size(); ++i) {
+	    for (int j = i + 1; j < intervals.size(); ++j) {
+		if (intervals.get(i).isConnected(intervals.get(j))) {
+		    return false;
+		}
+	    }
+	}
+	return true;
+    }
+}
@@ -9,6 +9,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import java.util.stream.IntStream;
@@ -41,6 +42,7 @@ import io.github.oliviercailloux.minimax.strategies.StrategyByMmr;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
 import io.github.oliviercailloux.minimax.strategies.Helper;
 import io.github.oliviercailloux.minimax.utils.Generator;
+import io.github.oliviercailloux.minimax.utils.ProfileModel;
 
 public class VariousXps {
     @SuppressWarnings("unused")
@@ -53,6 +55,7 @@ public class VariousXps {
 //		variousXps.runWithRandomOraclesOneVoter();
 //		variousXps.showFinalStats();
 //		variousXps.exportOracles(10, 20, 100);
+//		variousXps.exportOracles(ProfileModel.mallows(0.5d), 10, 20, 100, 0l);
 //		variousXps.tiesWithOracle1();
 //		variousXps.runWithOracle0();
 //		variousXps.analyzeQuestions();
@@ -195,6 +198,25 @@ public class VariousXps {
 		String.format("Oracles m = %d, n = %d, %d, unbalanced.json", m, n, count)), json.toString());
     }
 
+    /**
+     * Exports oracles whose profiles are drawn from the given model, with
+     * unbalanced weights, all derived from the given seed.
+     */
+    public void exportOracles(ProfileModel model, int m, int n, int count, long seed) throws IOException {
+	final SplittableRandom random = new SplittableRandom(seed);
+	final ImmutableList.Builder<Oracle> builder = ImmutableList.<Oracle>builder();
+	for (int i = 0; i < count; ++i) {
+	    final Oracle oracle = Oracle.build(model.genProfile(m, n, random.nextLong()),
+		    Generator.genWeightsWithUnbalancedDistribution(m, random.nextLong()));
+	    builder.add(oracle);
+	}
+	final ImmutableList<Oracle> oracles = builder.build();
+	final PrintableJsonObject json = JsonConverter.toJson(oracles);
+	Files.writeString(Path.of("experiments/Oracles/", String.format(
+		"Oracles m = %d, n = %d, %d, %s, unbalanced.json", m, n, count, model.getDescription())),
+		json.toString());
+    }
+
     public Runs runs(StrategyFactory factory, Oracle oracle, int k, int nbRuns) throws IOException {
 	final ImmutableList<Oracle> oracles = Stream.generate(() -> oracle).limit(nbRuns)
 		.collect(ImmutableList.toImmutableList());
@@ -220,7 +242,7 @@ public class VariousXps {
 	LOGGER.info("Started '{}'.", factory.getDescription());
 	for (int i = 0; i < nbRuns; ++i) {
 	    final Oracle oracle = oracles.get(i);
-	    final Run run = Runner.run(factory, oracle, k);
+	    final Run run = Runner.run(factory, oracle, k, i);
 	    LOGGER.info("Time (run {}): {}.", i, run.getTotalTime());
 	    runsBuilder.add(run);
 	    final Runs runs = Runs.of(factory, runsBuilder.build());
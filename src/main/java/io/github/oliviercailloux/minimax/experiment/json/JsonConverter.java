@@ -28,7 +28,13 @@ public class JsonConverter {
     @SuppressWarnings("unused")
     private static final Logger LOGGER = LoggerFactory.getLogger(JsonConverter.class);
 
-    private static Jsonb preferenceBuilder = null;
+    /**
+     * Lazily initialized, thread-safe holder.
+     */
+    private static class PreferenceBuilderHolder {
+	private static final Jsonb PREFERENCE_BUILDER = JsonbBuilder.create(new JsonbConfig()
+		.withAdapters(VoterAdapter.INSTANCE, AlternativeAdapter.INSTANCE).withFormatting(true));
+    }
 
     public static PrintableJsonObject toJson(Voter voter) {
 	return JsonbUtils.toJsonObject(voter);
@@ -36,12 +42,8 @@ public class JsonConverter {
 
     public static PrintableJsonObject toJson(VoterStrictPreference preference) {
 	final String asStr;
-	if (preferenceBuilder == null) {
-	    preferenceBuilder = JsonbBuilder.create(new JsonbConfig()
-		    .withAdapters(VoterAdapter.INSTANCE, AlternativeAdapter.INSTANCE).withFormatting(true));
-	}
 	try {
-	    asStr = preferenceBuilder.toJson(preference);
+	    asStr = PreferenceBuilderHolder.PREFERENCE_BUILDER.toJson(preference);
 	    assert asStr.startsWith("\n");
 	} catch (Exception e) {
 	    throw new IllegalStateException(e);
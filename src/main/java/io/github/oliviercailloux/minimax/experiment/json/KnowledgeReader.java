@@ -0,0 +1,148 @@
+package io.github.oliviercailloux.minimax.experiment.json;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.minimax.elicitation.DenseIndex;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+
+/**
+ * Builds an initial knowledge from JSON in a single streaming pass, so that
+ * large files of partially known ballots are never held in memory as a whole.
+ *
+ * <p>
+ * The knowledge is written as
+ * <code>{"alternatives":[1,2,3,4],"voters":[1,2],"ballots":[{"voter":1,"top":[3,1]}],"answers":[…]}</code>,
+ * where the alternatives and the voters are given by their ids and must come
+ * first, each ballot is a top-k ballot, given to
+ * {@link UpdateablePreferenceKnowledge#setTop(Voter, List)}, and the answers,
+ * written as by {@link QuestionCodec}, typically give the known ratios of
+ * differences of weights; they are all applied at the end, through
+ * {@link UpdateablePreferenceKnowledge#updateAll(java.util.Collection)}. The
+ * ballots and the answers are optional.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class KnowledgeReader {
+    @SuppressWarnings("unused")
+    private static final Logger LOGGER = LoggerFactory.getLogger(KnowledgeReader.class);
+
+    /**
+     * Reads a knowledge, then closes the reader.
+     */
+    public static UpdateablePreferenceKnowledge read(Reader reader) {
+	try (JsonParser parser = Json.createParser(reader)) {
+	    return read(parser);
+	}
+    }
+
+    /**
+     * @param parser whose next event is the start of the knowledge object; after
+     *               this call, the last event read is the end of that object.
+     */
+    public static UpdateablePreferenceKnowledge read(JsonParser parser) {
+	QuestionCodec.expect(parser, Event.START_OBJECT);
+	ImmutableSet<Alternative> alternatives = null;
+	ImmutableSet<Voter> voters = null;
+	UpdateablePreferenceKnowledge knowledge = null;
+	final List<PreferenceInformation> answers = new ArrayList<>();
+	while (QuestionCodec.nextIs(parser, Event.KEY_NAME, Event.END_OBJECT)) {
+	    final String key = parser.getString();
+	    switch (key) {
+	    case "alternatives": {
+		final ImmutableSet.Builder<Alternative> builder = ImmutableSet.builder();
+		QuestionCodec.expect(parser, Event.START_ARRAY);
+		while (QuestionCodec.nextIs(parser, Event.VALUE_NUMBER, Event.END_ARRAY)) {
+		    builder.add(Alternative.withId(parser.getInt()));
+		}
+		alternatives = builder.build();
+		break;
+	    }
+	    case "voters": {
+		final ImmutableSet.Builder<Voter> builder = ImmutableSet.builder();
+		QuestionCodec.expect(parser, Event.START_ARRAY);
+		while (QuestionCodec.nextIs(parser, Event.VALUE_NUMBER, Event.END_ARRAY)) {
+		    builder.add(Voter.withId(parser.getInt()));
+		}
+		voters = builder.build();
+		break;
+	    }
+	    case "ballots":
+		checkArgument(knowledge != null, "The ballots must follow the alternatives and the voters.");
+		QuestionCodec.expect(parser, Event.START_ARRAY);
+		while (QuestionCodec.nextIs(parser, Event.START_OBJECT, Event.END_ARRAY)) {
+		    readBallot(parser, knowledge);
+		}
+		break;
+	    case "answers":
+		QuestionCodec.expect(parser, Event.START_ARRAY);
+		while (QuestionCodec.nextIs(parser, Event.START_OBJECT, Event.END_ARRAY)) {
+		    answers.add(QuestionCodec.readAnswerContent(parser));
+		}
+		break;
+	    default:
+		throw new IllegalArgumentException("Unexpected key: " + key + ".");
+	    }
+	    if (knowledge == null && alternatives != null && voters != null) {
+		knowledge = UpdateablePreferenceKnowledge.given(alternatives, voters);
+	    }
+	}
+	checkArgument(knowledge != null, "Missing alternatives or voters.");
+	knowledge.updateAll(answers);
+	return knowledge;
+    }
+
+    /**
+     * @param parser whose last event read is the start of the ballot object;
+     *               after this call, the last event read is the end of that
+     *               object.
+     */
+    private static void readBallot(JsonParser parser, UpdateablePreferenceKnowledge knowledge) {
+	final DenseIndex index = knowledge.getIndex();
+	Integer voterId = null;
+	ImmutableList<Alternative> top = null;
+	while (QuestionCodec.nextIs(parser, Event.KEY_NAME, Event.END_OBJECT)) {
+	    final String key = parser.getString();
+	    switch (key) {
+	    case "voter":
+		voterId = QuestionCodec.readInt(parser);
+		break;
+	    case "top": {
+		final ImmutableList.Builder<Alternative> builder = ImmutableList.builder();
+		QuestionCodec.expect(parser, Event.START_ARRAY);
+		while (QuestionCodec.nextIs(parser, Event.VALUE_NUMBER, Event.END_ARRAY)) {
+		    /** Shares the instances of the knowledge rather than keeping new ones. */
+		    builder.add(index.getAlternative(index.getIndex(Alternative.withId(parser.getInt()))));
+		}
+		top = builder.build();
+		break;
+	    }
+	    default:
+		throw new IllegalArgumentException("Unexpected key: " + key + ".");
+	    }
+	}
+	checkArgument(voterId != null && top != null);
+	knowledge.setTop(index.getVoter(index.getIndex(Voter.withId(voterId))), top);
+    }
+
+    private KnowledgeReader() {
+    }
+}
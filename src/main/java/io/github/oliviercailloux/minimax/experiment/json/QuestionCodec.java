@@ -0,0 +1,203 @@
+package io.github.oliviercailloux.minimax.experiment.json;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
+
+import com.google.common.base.VerifyException;
+import com.google.common.collect.ImmutableSet;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.QuestionCommittee;
+import io.github.oliviercailloux.minimax.elicitation.QuestionVoter;
+
+/**
+ * Converts questions to and from JSON objects in a single pass, without going
+ * through intermediate strings, and reads answers (preference information) from
+ * streaming parsers.
+ *
+ * <p>
+ * A question is written as <code>{"toVoter":{"voter":1,"alternatives":[1,2]}}</code>
+ * or <code>{"toCommittee":{"lambda":{"numerator":1,"denominator":2},"rank":1}}</code>.
+ * An answer is written as
+ * <code>{"aboutVoter":{"voter":1,"better":1,"worse":2}}</code> or
+ * <code>{"aboutCommittee":{"rank":1,"operator":"GE","lambda":{"numerator":1,"denominator":2}}}</code>.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class QuestionCodec {
+    public static JsonObject toJson(Question question) {
+	final JsonObjectBuilder builder = Json.createObjectBuilder();
+	switch (question.getType()) {
+	case COMMITTEE_QUESTION:
+	    final QuestionCommittee qc = question.asQuestionCommittee();
+	    builder.add("toCommittee", Json.createObjectBuilder()
+		    .add("lambda", AprationalAdapter.INSTANCE.adaptToJson(qc.getLambda())).add("rank", qc.getRank()));
+	    break;
+	case VOTER_QUESTION:
+	    final QuestionVoter qv = question.asQuestionVoter();
+	    final JsonArrayBuilder alternatives = Json.createArrayBuilder();
+	    for (Alternative alternative : qv.getAlternatives()) {
+		alternatives.add(alternative.getId());
+	    }
+	    builder.add("toVoter",
+		    Json.createObjectBuilder().add("voter", qv.getVoter().getId()).add("alternatives", alternatives));
+	    break;
+	default:
+	    throw new VerifyException();
+	}
+	return builder.build();
+    }
+
+    public static Question toQuestion(JsonObject json) {
+	final boolean com = json.containsKey("toCommittee");
+	final boolean vot = json.containsKey("toVoter");
+	checkArgument(com == !vot);
+	if (com) {
+	    final JsonObject toCommittee = json.getJsonObject("toCommittee");
+	    final Aprational lambda = AprationalAdapter.INSTANCE.adaptFromJson(toCommittee.getJsonObject("lambda"));
+	    return Question.toCommittee(lambda, toCommittee.getInt("rank"));
+	}
+	final JsonObject toVoter = json.getJsonObject("toVoter");
+	final JsonArray alternatives = toVoter.getJsonArray("alternatives");
+	checkArgument(alternatives.size() == 2);
+	return Question.toVoter(QuestionVoter.given(Voter.withId(toVoter.getInt("voter")),
+		ImmutableSet.of(Alternative.withId(alternatives.getInt(0)), Alternative.withId(alternatives.getInt(1)))));
+    }
+
+    /**
+     * Reads an answer, written as described in this class, from a parser whose
+     * last event read is the start of the answer object, for use where that
+     * event must be seen first to know that an answer follows (see
+     * {@link KnowledgeReader}).
+     *
+     * @param parser after this call, the last event read is the end of the
+     *               answer object.
+     */
+    static PreferenceInformation readAnswerContent(JsonParser parser) {
+	expect(parser, Event.KEY_NAME);
+	final String kind = parser.getString();
+	expect(parser, Event.START_OBJECT);
+	final PreferenceInformation answer;
+	switch (kind) {
+	case "aboutCommittee": {
+	    Integer rank = null;
+	    ComparisonOperator op = null;
+	    Aprational lambda = null;
+	    while (nextIs(parser, Event.KEY_NAME, Event.END_OBJECT)) {
+		final String key = parser.getString();
+		switch (key) {
+		case "rank":
+		    rank = readInt(parser);
+		    break;
+		case "operator":
+		    expect(parser, Event.VALUE_STRING);
+		    op = ComparisonOperator.valueOf(parser.getString());
+		    break;
+		case "lambda":
+		    lambda = readLambda(parser);
+		    break;
+		default:
+		    throw new IllegalArgumentException("Unexpected key: " + key + ".");
+		}
+	    }
+	    checkArgument(rank != null && op != null && lambda != null);
+	    answer = PreferenceInformation.aboutCommittee(rank, op, lambda);
+	    break;
+	}
+	case "aboutVoter": {
+	    Integer voterId = null;
+	    Integer better = null;
+	    Integer worse = null;
+	    while (nextIs(parser, Event.KEY_NAME, Event.END_OBJECT)) {
+		final String key = parser.getString();
+		switch (key) {
+		case "voter":
+		    voterId = readInt(parser);
+		    break;
+		case "better":
+		    better = readInt(parser);
+		    break;
+		case "worse":
+		    worse = readInt(parser);
+		    break;
+		default:
+		    throw new IllegalArgumentException("Unexpected key: " + key + ".");
+		}
+	    }
+	    checkArgument(voterId != null && better != null && worse != null);
+	    answer = PreferenceInformation.aboutVoter(Voter.withId(voterId), Alternative.withId(better),
+		    Alternative.withId(worse));
+	    break;
+	}
+	default:
+	    throw new IllegalArgumentException("Unexpected answer kind: " + kind + ".");
+	}
+	expect(parser, Event.END_OBJECT);
+	return answer;
+    }
+
+    static Aprational readLambda(JsonParser parser) {
+	expect(parser, Event.START_OBJECT);
+	Integer numerator = null;
+	Integer denominator = null;
+	while (nextIs(parser, Event.KEY_NAME, Event.END_OBJECT)) {
+	    final String key = parser.getString();
+	    switch (key) {
+	    case "numerator":
+		numerator = readInt(parser);
+		break;
+	    case "denominator":
+		denominator = readInt(parser);
+		break;
+	    default:
+		throw new IllegalArgumentException("Unexpected key: " + key + ".");
+	    }
+	}
+	checkArgument(numerator != null && denominator != null);
+	return new Aprational(new Apint(numerator), new Apint(denominator));
+    }
+
+    static int readInt(JsonParser parser) {
+	expect(parser, Event.VALUE_NUMBER);
+	return parser.getInt();
+    }
+
+    static void expect(JsonParser parser, Event expected) {
+	final Event event = parser.next();
+	checkArgument(event == expected, "Expected " + expected + " but got " + event + ".");
+    }
+
+    /**
+     * Reads the next event, which must be either the given one, that starts or is
+     * the next element of the current array or object, or the given one that ends
+     * it.
+     *
+     * @return {@code true} iff the event read is the element one.
+     * @throws IllegalArgumentException if the event read is neither.
+     */
+    static boolean nextIs(JsonParser parser, Event element, Event end) {
+	final Event event = parser.next();
+	checkArgument(event == element || event == end,
+		"Expected " + element + " or " + end + " but got " + event + ".");
+	return event == element;
+    }
+
+    private QuestionCodec() {
+    }
+}
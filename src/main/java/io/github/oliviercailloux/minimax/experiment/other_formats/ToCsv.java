@@ -4,23 +4,31 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import java.io.StringWriter;
 import java.text.NumberFormat;
+import java.util.List;
 import java.util.Locale;
+import java.util.function.ToLongFunction;
 import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
 import com.google.common.math.Stats;
 import com.univocity.parsers.csv.CsvWriter;
 import com.univocity.parsers.csv.CsvWriterSettings;
 
+import io.github.oliviercailloux.minimax.experiment.QuestionStats;
 import io.github.oliviercailloux.minimax.experiment.Runs;
+import io.github.oliviercailloux.minimax.experiment.Tournament;
 
 public class ToCsv {
     @SuppressWarnings("unused")
     private static final Logger LOGGER = LoggerFactory.getLogger(ToCsv.class);
 
+    private static final String[] STATS_HEADERS = new String[] { "Strategy µs avg", "Oracle µs avg",
+	    "Update µs avg", "LP solves avg", "Closures avg", "PMRs avg" };
+
     public static String toCsv(Runs runs, int modulo) {
 	checkArgument(modulo >= 1);
 	final ImmutableList<Integer> ks = IntStream.rangeClosed(0, runs.getK()).filter(i -> i % modulo == 0).boxed()
@@ -29,10 +37,22 @@ public class ToCsv {
 	final NumberFormat formatter = NumberFormat.getNumberInstance(Locale.ENGLISH);
 	formatter.setMaximumFractionDigits(2);
 
+	/**
+	 * The detailed statistics are only available for runs that have just been
+	 * computed, not for runs read from JSON.
+	 */
+	final boolean withStats = !runs.getRuns().isEmpty()
+		&& runs.getRuns().stream().noneMatch(r -> r.getQuestionStats().isEmpty());
+
 	final StringWriter stringWriter = new StringWriter();
 	final CsvWriter writer = new CsvWriter(stringWriter, new CsvWriterSettings());
-	writer.writeHeaders("k", "MMR min", "MMR avg", "MMR max", "MMR σ (est.)", "Loss min", "Loss avg", "Loss max",
+	final ImmutableList.Builder<String> headers = ImmutableList.builder();
+	headers.add("k", "MMR min", "MMR avg", "MMR max", "MMR σ (est.)", "Loss min", "Loss avg", "Loss max",
 		"Loss σ (est.)");
+	if (withStats) {
+	    headers.add(STATS_HEADERS);
+	}
+	writer.writeHeaders(headers.build());
 	for (int k : ks) {
 	    writer.addValue("k", k);
 	    {
@@ -51,9 +71,70 @@ public class ToCsv {
 		final String dev = stat.count() >= 2 ? formatter.format(stat.sampleStandardDeviation()) : "";
 		writer.addValue("Loss σ (est.)", dev);
 	    }
+	    /** Row k reports on the k-th question, thus, there is none for k = 0. */
+	    if (withStats && k >= 1) {
+		final ImmutableList<QuestionStats> stats = runs.getRuns().stream()
+			.map(r -> r.getQuestionStats().get(k - 1)).collect(ImmutableList.toImmutableList());
+		writer.addValue("Strategy µs avg", formatter.format(mean(stats, QuestionStats::getStrategyNs) / 1e3d));
+		writer.addValue("Oracle µs avg", formatter.format(mean(stats, QuestionStats::getOracleNs) / 1e3d));
+		writer.addValue("Update µs avg", formatter.format(mean(stats, QuestionStats::getUpdateNs) / 1e3d));
+		writer.addValue("LP solves avg", formatter.format(mean(stats, QuestionStats::getNbLpSolves)));
+		writer.addValue("Closures avg", formatter.format(mean(stats, QuestionStats::getNbTransitiveClosures)));
+		writer.addValue("PMRs avg", formatter.format(mean(stats, QuestionStats::getNbPmrs)));
+	    }
 	    writer.writeValuesToRow();
 	}
 	return stringWriter.toString();
     }
 
+    /**
+     * @return one row per runs, comparing them at their last question; the runs
+     *         must all have the same k, typically as returned by a
+     *         {@link Tournament}.
+     */
+    public static String toComparisonCsv(List<Runs> allRuns) {
+	checkArgument(allRuns.stream().map(Runs::getK).distinct().count() <= 1);
+
+	final NumberFormat formatter = NumberFormat.getNumberInstance(Locale.ENGLISH);
+	formatter.setMaximumFractionDigits(2);
+
+	final StringWriter stringWriter = new StringWriter();
+	final CsvWriter writer = new CsvWriter(stringWriter, new CsvWriterSettings());
+	writer.writeHeaders("Strategy", "Nb runs", "MMR avg", "MMR 95% ±", "Loss avg", "Loss σ (est.)",
+		"Question ms avg", "Strategy µs avg");
+	for (Runs runs : allRuns) {
+	    writer.addValue("Strategy", runs.getFactory().getDescription());
+	    writer.addValue("Nb runs", runs.nbRuns());
+	    {
+		final Stats stat = runs.getMinimalMaxRegretStats().get(runs.getK());
+		writer.addValue("MMR avg", formatter.format(stat.mean()));
+		final Range<Double> interval = Tournament.getConfidenceInterval(stat);
+		final String halfWidth = interval.hasUpperBound()
+			? formatter.format(interval.upperEndpoint() - stat.mean())
+			: "";
+		writer.addValue("MMR 95% ±", halfWidth);
+	    }
+	    {
+		final Stats stat = runs.getLossesStats().get(runs.getK());
+		writer.addValue("Loss avg", formatter.format(stat.mean()));
+		final String dev = stat.count() >= 2 ? formatter.format(stat.sampleStandardDeviation()) : "";
+		writer.addValue("Loss σ (est.)", dev);
+	    }
+	    if (runs.getK() >= 1) {
+		writer.addValue("Question ms avg", formatter.format(runs.getQuestionTimeStats().mean()));
+	    }
+	    final ImmutableList<QuestionStats> stats = runs.getRuns().stream()
+		    .flatMap(r -> r.getQuestionStats().stream()).collect(ImmutableList.toImmutableList());
+	    if (!stats.isEmpty()) {
+		writer.addValue("Strategy µs avg", formatter.format(mean(stats, QuestionStats::getStrategyNs) / 1e3d));
+	    }
+	    writer.writeValuesToRow();
+	}
+	return stringWriter.toString();
+    }
+
+    private static double mean(List<QuestionStats> stats, ToLongFunction<QuestionStats> value) {
+	return Stats.meanOf(stats.stream().mapToLong(value).toArray());
+    }
+
 }
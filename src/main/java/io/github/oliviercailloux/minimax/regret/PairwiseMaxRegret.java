@@ -14,6 +14,8 @@ import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
 import io.github.oliviercailloux.j_voting.VoterStrictPreference;
 import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
+import io.github.oliviercailloux.minimax.utils.Counters;
+import io.github.oliviercailloux.minimax.utils.Counters.Counter;
 
 /**
  * Immutable.
@@ -23,7 +25,12 @@ import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
  */
 public class PairwiseMaxRegret {
     public static double getScore(Map<Voter, Integer> ranks, PSRWeights weights) {
-	return ranks.values().stream().mapToDouble(weights::getWeightAtRank).sum();
+	/** A plain loop rather than a stream: this is called for every PMR built. */
+	double score = 0d;
+	for (int rank : ranks.values()) {
+	    score += weights.getWeightAtRank(rank);
+	}
+	return score;
     }
 
     public static double getScore(Alternative alternative, VoterStrictPreference v, PSRWeights weights) {
@@ -33,7 +40,11 @@ public class PairwiseMaxRegret {
 
     public static double getScore(Alternative alternative, Map<Voter, VoterStrictPreference> profile,
 	    PSRWeights weights) {
-	return profile.values().stream().mapToDouble((v) -> getScore(alternative, v, weights)).sum();
+	double score = 0d;
+	for (VoterStrictPreference v : profile.values()) {
+	    score += getScore(alternative, v, weights);
+	}
+	return score;
     }
 
     public static PairwiseMaxRegret given(Alternative x, Alternative y, Map<Voter, Integer> ranksOfX,
@@ -85,6 +96,7 @@ public class PairwiseMaxRegret {
 	    checkArgument(ranksOfX.equals(ranksOfY), this.ranksOfX.toString() + ", " + this.ranksOfY.toString());
 	    checkArgument(pmrValue == 0d);
 	}
+	Counters.increment(Counter.PMR);
     }
 
     public Alternative getX() {
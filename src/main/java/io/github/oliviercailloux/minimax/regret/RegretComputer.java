@@ -1,22 +1,25 @@
 package io.github.oliviercailloux.minimax.regret;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static java.util.Objects.requireNonNull;
 
-import java.util.HashSet;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.ImmutableSortedMultiset;
 import com.google.common.collect.SortedMultiset;
 import com.google.common.graph.ImmutableGraph;
+import com.google.common.math.Stats;
 
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
@@ -24,16 +27,57 @@ import io.github.oliviercailloux.j_voting.VoterPartialPreference;
 import io.github.oliviercailloux.jlp.elements.SumTerms;
 import io.github.oliviercailloux.jlp.elements.SumTermsBuilder;
 import io.github.oliviercailloux.jlp.elements.Term;
+import io.github.oliviercailloux.minimax.elicitation.DenseIndex;
+import io.github.oliviercailloux.minimax.elicitation.Optima;
+import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
 import io.github.oliviercailloux.minimax.elicitation.PreferenceKnowledge;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics.Caller;
 
+/**
+ * Computes the pairwise max regrets, either exactly, using one LP per pair, or
+ * approximately, as a max over a sample of feasible weights (see
+ * {@link WeightsSampler}). An approximate PMR never exceeds the exact one.
+ *
+ * @author Olivier Cailloux
+ *
+ */
 public class RegretComputer {
     @SuppressWarnings("unused")
     private static final Logger LOGGER = LoggerFactory.getLogger(RegretComputer.class);
 
+    /**
+     * Fixed so that approximate computations are reproducible.
+     */
+    private static final long SAMPLING_SEED = 0L;
+
     private final PreferenceKnowledge knowledge;
 
+    private final int nbSamples;
+
+    /**
+     * The samples of the current approximate computation, {@code null} when
+     * computing exactly.
+     */
+    private ImmutableList<PSRWeights> samples;
+
     public RegretComputer(PreferenceKnowledge knowledge) {
+	this(knowledge, 0);
+    }
+
+    /**
+     * @param nbSamples 0 for computing the regrets exactly, a positive number of
+     *                  directions to sample for computing them approximately.
+     */
+    public RegretComputer(PreferenceKnowledge knowledge, int nbSamples) {
 	this.knowledge = requireNonNull(knowledge);
+	checkArgument(nbSamples >= 0);
+	this.nbSamples = nbSamples;
+	samples = null;
+    }
+
+    public int getNbSamples() {
+	return nbSamples;
     }
 
     public Regrets getMinimalMaxRegrets() {
@@ -41,52 +85,216 @@ public class RegretComputer {
 	return result;
     }
 
-    ImmutableSet<PairwiseMaxRegret> getPairwiseMaxRegrets(Alternative x) {
+    /**
+     * The ranks of x and of every y, for some alternative x, that determine the
+     * pairwise max regrets of x.
+     */
+    private static class RanksOfPairs {
+	private final ImmutableMap<Voter, Integer> ranksOfX;
+	private final int[] countsOfX;
+	/**
+	 * At [j][v], the best rank of the alternative of index j for the voter of
+	 * index v.
+	 */
+	private final int[][] ranksOfYs;
+	private final int[][] countsOfYs;
+
+	private RanksOfPairs(ImmutableMap<Voter, Integer> ranksOfX, int[] countsOfX, int[][] ranksOfYs,
+		int[][] countsOfYs) {
+	    this.ranksOfX = requireNonNull(ranksOfX);
+	    this.countsOfX = requireNonNull(countsOfX);
+	    this.ranksOfYs = requireNonNull(ranksOfYs);
+	    this.countsOfYs = requireNonNull(countsOfYs);
+	}
+    }
+
+    /**
+     * @param preferences the preferences of the voters, in the order of the
+     *                    index, fetched once, as a delegating knowledge may copy
+     *                    a preference at each call.
+     */
+    private RanksOfPairs getRanks(Alternative x, ImmutableList<VoterPartialPreference> preferences) {
 	checkArgument(knowledge.getAlternatives().contains(x));
 
-	final ImmutableMap<Voter, Integer> ranksOfX = getWorstRanksOfX(x);
-	final ImmutableSortedMultiset<Integer> multiSetOfRanksOfX = ImmutableSortedMultiset.copyOf(ranksOfX.values());
+	final DenseIndex index = knowledge.getIndex();
+	final int m = index.getNbAlternatives();
+	final int n = index.getNbVoters();
 
-	final ImmutableSet<PairwiseMaxRegret> pmrs = knowledge.getAlternatives().stream()
-		.map((y) -> getPmr(x, y, ranksOfX, multiSetOfRanksOfX)).collect(ImmutableSet.toImmutableSet());
+	final int[] ranksOfX = new int[n];
+	for (int v = 0; v < n; ++v) {
+	    ranksOfX[v] = getWorstRankOfX(x, preferences.get(v));
+	}
+
+	final ImmutableList<Alternative> ys = index.getAlternatives();
+	final int[][] ranksOfYs = new int[m][n];
+	final int[][] countsOfYs = new int[m][];
+	for (int j = 0; j < m; ++j) {
+	    final Alternative y = ys.get(j);
+	    for (int v = 0; v < n; ++v) {
+		ranksOfYs[j][v] = getBestRankOfY(x, y, preferences.get(v));
+	    }
+	    countsOfYs[j] = getRankCounts(ranksOfYs[j], m);
+	}
+	return new RanksOfPairs(index.asVoterMap(ranksOfX), getRankCounts(ranksOfX, m), ranksOfYs, countsOfYs);
+    }
+
+    private ImmutableList<VoterPartialPreference> getPreferences() {
+	return knowledge.getIndex().getVoters().stream().map(knowledge::getPartialPreference)
+		.collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Computes the PMRs of x exactly, using one LP per pair.
+     */
+    ImmutableSet<PairwiseMaxRegret> getPairwiseMaxRegrets(Alternative x) {
+	final DenseIndex index = knowledge.getIndex();
+	final int m = index.getNbAlternatives();
+	final RanksOfPairs ranks = getRanks(x, getPreferences());
+	final ImmutableList<Alternative> ys = index.getAlternatives();
+
+	final ImmutableList.Builder<SumTerms> objectivesBuilder = ImmutableList.builder();
+	for (int j = 0; j < m; ++j) {
+	    objectivesBuilder.add(getTermScoreYMinusScoreX(ranks.countsOfYs[j], ranks.countsOfX));
+	}
+	final ImmutableList<SumTerms> objectives = objectivesBuilder.build();
+	final Optima optima;
+	try (SolverMetrics.Scope scope = SolverMetrics.as(Caller.PMR)) {
+	    optima = knowledge.getConstraintsOnWeights().maximizeAll(objectives);
+	}
+	final ImmutableSet.Builder<PairwiseMaxRegret> pmrsBuilder = ImmutableSet.builder();
+	for (int i = 0; i < ys.size(); ++i) {
+	    final Alternative y = ys.get(i);
+	    final double pmr = optima.getValue(i);
+	    /** Just a check that the value seems to make sense. */
+	    verify(Math.abs(pmr) <= knowledge.getVoters().size());
+	    if (x.equals(y)) {
+		verify(pmr == 0d);
+	    }
+	    pmrsBuilder.add(PairwiseMaxRegret.given(x, y, ranks.ranksOfX, index.asVoterMap(ranks.ranksOfYs[i]),
+		    optima.getWeights(i), pmr));
+	}
+	final ImmutableSet<PairwiseMaxRegret> pmrs = pmrsBuilder.build();
 	verify(!pmrs.isEmpty());
 
 	return pmrs;
     }
 
+    /**
+     * Computes the PMRs of every x approximately, by scoring all the m² pairs
+     * against the samples with a single kernel.
+     */
+    private ImmutableMap<Alternative, ImmutableSet<PairwiseMaxRegret>> getSampledPairwiseMaxRegrets() {
+	checkState(samples != null);
+	final DenseIndex index = knowledge.getIndex();
+	final int m = index.getNbAlternatives();
+	final ImmutableList<Alternative> alternatives = index.getAlternatives();
+	final ImmutableList<VoterPartialPreference> preferences = getPreferences();
+
+	final List<RanksOfPairs> allRanks = new ArrayList<>(m);
+	final List<double[]> allCoefs = new ArrayList<>(m * m);
+	for (Alternative x : alternatives) {
+	    final RanksOfPairs ranks = getRanks(x, preferences);
+	    allRanks.add(ranks);
+	    for (int j = 0; j < m; ++j) {
+		allCoefs.add(getCoefficients(ranks.countsOfYs[j], ranks.countsOfX));
+	    }
+	}
+	/** At index i × m + j, the best sample for x of index i and y of index j. */
+	final int[] argMax = ScoringKernel.given(allCoefs).getArgMax(samples);
+
+	final ImmutableMap.Builder<Alternative, ImmutableSet<PairwiseMaxRegret>> builder = ImmutableMap.builder();
+	for (int i = 0; i < m; ++i) {
+	    final Alternative x = alternatives.get(i);
+	    final RanksOfPairs ranks = allRanks.get(i);
+	    final ImmutableSet.Builder<PairwiseMaxRegret> pmrsBuilder = ImmutableSet.builder();
+	    for (int j = 0; j < m; ++j) {
+		final PSRWeights best = samples.get(argMax[i * m + j]);
+		pmrsBuilder.add(PairwiseMaxRegret.given(x, alternatives.get(j), ranks.ranksOfX,
+			index.asVoterMap(ranks.ranksOfYs[j]), best));
+	    }
+	    builder.put(x, pmrsBuilder.build());
+	}
+	return builder.build();
+    }
+
+    /**
+     * @return at index r, the number of occurrences of r among the given ranks,
+     *         for r from 1 to m (index zero is unused).
+     */
+    private static int[] getRankCounts(int[] ranks, int m) {
+	final int[] counts = new int[m + 1];
+	for (int rank : ranks) {
+	    ++counts[rank];
+	}
+	return counts;
+    }
+
+    /**
+     * @return at index r − 1, the number of times y has rank r minus the number of
+     *         times x has rank r.
+     */
+    private static double[] getCoefficients(int[] countsOfY, int[] countsOfX) {
+	final int m = countsOfY.length - 1;
+	final double[] coefs = new double[m];
+	for (int r = 1; r <= m; ++r) {
+	    coefs[r - 1] = countsOfY[r] - countsOfX[r];
+	}
+	return coefs;
+    }
+
     public Regrets getAllPairwiseMaxRegrets() {
-	final ImmutableMap<Alternative, ImmutableSet<PairwiseMaxRegret>> allPmrs = knowledge.getAlternatives().stream()
-		.collect(ImmutableMap.toImmutableMap(Function.identity(), this::getPairwiseMaxRegrets));
+	/** The knowledge may have changed since the last call, thus we sample anew. */
+	samples = nbSamples == 0 ? null
+		: WeightsSampler.given(knowledge.getConstraintsOnWeights(), new Random(SAMPLING_SEED))
+			.sample(nbSamples);
+	final ImmutableMap<Alternative, ImmutableSet<PairwiseMaxRegret>> allPmrs = samples == null
+		? knowledge.getAlternatives().stream()
+			.collect(ImmutableMap.toImmutableMap(Function.identity(), this::getPairwiseMaxRegrets))
+		: getSampledPairwiseMaxRegrets();
 	final Regrets regrets = Regrets.given(allPmrs);
 	LOGGER.debug("Computed from {}: {}.", knowledge, regrets);
 	return regrets;
     }
 
-    private PairwiseMaxRegret getPmr(Alternative x, Alternative y, Map<Voter, Integer> ranksOfX,
-	    SortedMultiset<Integer> multiSetOfRanksOfX) {
-	final ImmutableMap<Voter, Integer> ranksOfY = getBestRanksOfY(x, y);
-	final ImmutableSortedMultiset<Integer> multiSetOfRanksOfY = ImmutableSortedMultiset.copyOf(ranksOfY.values());
-
-	final SumTerms sumTerms = getTermScoreYMinusScoreX(multiSetOfRanksOfY, multiSetOfRanksOfX);
-	final double pmr = knowledge.getConstraintsOnWeights().maximize(sumTerms);
-	/** Just a check that the value seems to make sense. */
-	verify(Math.abs(pmr) <= knowledge.getVoters().size());
-	if (x.equals(y)) {
-	    verify(pmr == 0d);
+    /**
+     * Compares the approximate PMRs to the exact ones.
+     *
+     * @return the statistics of the errors (exact value minus approximate value,
+     *         thus non negative up to the LP imprecision) over all pairs of
+     *         alternatives.
+     */
+    public Stats getApproximationErrors() {
+	checkState(nbSamples >= 1);
+	final Regrets approximate = getAllPairwiseMaxRegrets();
+	final Regrets exact = new RegretComputer(knowledge).getAllPairwiseMaxRegrets();
+	final ImmutableList.Builder<Double> errors = ImmutableList.builder();
+	for (PairwiseMaxRegret pmr : exact.asMultimap().values()) {
+	    final double approximateValue = approximate.asMultimap().get(pmr.getX()).stream()
+		    .filter((p) -> p.getY().equals(pmr.getY())).findAny().get().getPmrValue();
+	    errors.add(pmr.getPmrValue() - approximateValue);
 	}
-	final PairwiseMaxRegret pmrY = PairwiseMaxRegret.given(x, y, ranksOfX, ranksOfY,
-		knowledge.getConstraintsOnWeights().getLastSolution(), pmr);
-	return pmrY;
+	final Stats stats = Stats.of(errors.build());
+	LOGGER.debug("Errors using {} samples: {}.", nbSamples, stats);
+	return stats;
     }
 
     public SumTerms getTermScoreYMinusScoreX(SortedMultiset<Integer> multiSetOfRanksOfY,
 	    SortedMultiset<Integer> multiSetOfRanksOfX) {
 	final int m = knowledge.getAlternatives().size();
+	final int[] countsOfY = new int[m + 1];
+	final int[] countsOfX = new int[m + 1];
+	for (int r = 1; r <= m; ++r) {
+	    countsOfY[r] = multiSetOfRanksOfY.count(r);
+	    countsOfX[r] = multiSetOfRanksOfX.count(r);
+	}
+	return getTermScoreYMinusScoreX(countsOfY, countsOfX);
+    }
+
+    private SumTerms getTermScoreYMinusScoreX(int[] countsOfY, int[] countsOfX) {
+	final int m = countsOfY.length - 1;
 	final SumTermsBuilder builder = SumTerms.builder();
 	for (int r = 1; r <= m; ++r) {
-	    final int coefY = multiSetOfRanksOfY.count(r);
-	    final int coefX = multiSetOfRanksOfX.count(r);
-	    final int coef = coefY - coefX;
+	    final int coef = countsOfY[r] - countsOfX[r];
 	    if (coef != 0) {
 		final Term term = knowledge.getConstraintsOnWeights().getTerm(coef, r);
 		builder.add(term);
@@ -132,18 +340,24 @@ public class RegretComputer {
     int getBestRankOfY(Alternative x, Alternative y, VoterPartialPreference partialPreference) {
 	final ImmutableGraph<Alternative> transitivePreference = partialPreference.asTransitiveGraph();
 	final int m = transitivePreference.nodes().size();
-	Set<Alternative> strictlyBetterThanY = transitivePreference.predecessors(y);
+	final Set<Alternative> strictlyBetterThanY = transitivePreference.predecessors(y);
 	final int nbStrictlyBetterThanY = strictlyBetterThanY.size();
 	assert 0 <= nbStrictlyBetterThanY && nbStrictlyBetterThanY <= m - 1;
 	final int beta;
 	if (transitivePreference.hasEdgeConnecting(x, y) || x.equals(y)) {
-	    final HashSet<Alternative> incomparableAlternatives = new HashSet<>(transitivePreference.nodes());
-	    final HashSet<Alternative> notBetterThanX = new HashSet<>(transitivePreference.successors(x));
-	    notBetterThanX.add(x);
-	    incomparableAlternatives.removeAll(notBetterThanX);
-	    incomparableAlternatives.removeAll(strictlyBetterThanY);
-
-	    final int nbIncomparableAlts = incomparableAlternatives.size();
+	    /**
+	     * The alternatives incomparable to both: all but those not better than x
+	     * (including x) and those strictly better than y, counted without building
+	     * these sets.
+	     */
+	    final Set<Alternative> lessGoodThanX = transitivePreference.successors(x);
+	    int nbBetterThanYOnly = 0;
+	    for (Alternative z : strictlyBetterThanY) {
+		if (!z.equals(x) && !lessGoodThanX.contains(z)) {
+		    ++nbBetterThanYOnly;
+		}
+	    }
+	    final int nbIncomparableAlts = m - (lessGoodThanX.size() + 1) - nbBetterThanYOnly;
 	    assert 0 <= nbIncomparableAlts && nbIncomparableAlts <= m - 1;
 	    beta = nbIncomparableAlts;
 	} else {
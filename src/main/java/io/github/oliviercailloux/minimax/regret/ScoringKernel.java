@@ -0,0 +1,186 @@
+package io.github.oliviercailloux.minimax.regret;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.primitives.Doubles;
+
+import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
+
+/**
+ * Scores pairs of alternatives (x, y) in bulk against weights. The score of a
+ * pair under weights w is Σ_r c(r) w(r), where c(r) is the number of voters
+ * who rank y at rank r minus the number of voters who rank x at rank r: the
+ * score of y minus the score of x. Scoring P pairs against W weights is thus
+ * the product of a W × m matrix by an m × P matrix.
+ *
+ * <p>
+ * The coefficients are stored rank-major in a flat array. The innermost loop,
+ * over the pairs, then reads and writes contiguous doubles without any
+ * dependency between iterations. When the module jdk.incubator.vector is
+ * available at run time (the build adds it when compiling and testing), that
+ * loop uses the Vector API (see {@link VectorAccumulator}); otherwise, it is a
+ * plain loop, which the JIT compiler may vectorize by itself. In both cases,
+ * for a given pair, the terms are multiplied then added (not fused) in
+ * increasing order of rank, starting from zero, thus the scores are exactly
+ * those of the naïve computation.
+ * </p>
+ *
+ * <p>
+ * Immutable.
+ * </p>
+ */
+public class ScoringKernel {
+    @SuppressWarnings("unused")
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScoringKernel.class);
+
+    /**
+     * Adds, for each pair p, its score under the given weights to scores[p].
+     */
+    static interface Accumulator {
+	public void accumulate(double[] coefficientsByRank, int nbPairs, double[] weights, double[] scores);
+    }
+
+    static final Accumulator SCALAR = (coefficientsByRank, nbPairs, weights, scores) -> {
+	for (int r = 0; r < weights.length; ++r) {
+	    final double weight = weights[r];
+	    final int offset = r * nbPairs;
+	    for (int p = 0; p < nbPairs; ++p) {
+		scores[p] += coefficientsByRank[offset + p] * weight;
+	    }
+	}
+    };
+
+    /**
+     * The vectorized accumulator if the Vector API is available, the scalar one
+     * otherwise.
+     */
+    static final Accumulator ACCUMULATOR = getAccumulator();
+
+    /**
+     * Loads the vectorized accumulator reflectively, so that this class does not
+     * depend on the incubating module when it is absent.
+     */
+    private static Accumulator getAccumulator() {
+	try {
+	    final Class<?> vectorClass = Class.forName(ScoringKernel.class.getPackageName() + ".VectorAccumulator");
+	    final Accumulator vector = (Accumulator) vectorClass.getDeclaredConstructor().newInstance();
+	    LOGGER.debug("Using the Vector API.");
+	    return vector;
+	} catch (ReflectiveOperationException | LinkageError e) {
+	    LOGGER.debug("Vector API unavailable, using scalar loops.", e);
+	    return SCALAR;
+	}
+    }
+
+    public static boolean isVectorized() {
+	return ACCUMULATOR != SCALAR;
+    }
+
+    /**
+     * @param coefficients for each pair, at index r − 1, the number of voters who
+     *                     rank y at rank r minus the number of voters who rank x
+     *                     at rank r; all of the same length m, at least one.
+     */
+    public static ScoringKernel given(List<double[]> coefficients) {
+	return new ScoringKernel(coefficients);
+    }
+
+    private final int m;
+
+    private final int nbPairs;
+
+    /**
+     * At index (r − 1) × P + p, the coefficient of rank r for the pair p.
+     */
+    private final double[] coefficientsByRank;
+
+    private ScoringKernel(List<double[]> coefficients) {
+	checkArgument(!coefficients.isEmpty());
+	m = coefficients.get(0).length;
+	checkArgument(m >= 1);
+	nbPairs = coefficients.size();
+	coefficientsByRank = new double[m * nbPairs];
+	for (int p = 0; p < nbPairs; ++p) {
+	    final double[] pairCoefficients = coefficients.get(p);
+	    checkArgument(pairCoefficients.length == m);
+	    for (int r = 0; r < m; ++r) {
+		coefficientsByRank[r * nbPairs + p] = pairCoefficients[r];
+	    }
+	}
+    }
+
+    public int getM() {
+	return m;
+    }
+
+    public int getNbPairs() {
+	return nbPairs;
+    }
+
+    /**
+     * @return at index p, the score of the pair p.
+     */
+    public double[] getScores(PSRWeights weights) {
+	final double[] scores = new double[nbPairs];
+	accumulate(asArray(weights), scores);
+	return scores;
+    }
+
+    /**
+     * @return at [w][p], the score of the pair p under the weights w.
+     */
+    public double[][] getScores(List<PSRWeights> allWeights) {
+	final double[][] scores = new double[allWeights.size()][];
+	for (int w = 0; w < allWeights.size(); ++w) {
+	    scores[w] = getScores(allWeights.get(w));
+	}
+	return scores;
+    }
+
+    /**
+     * @param allWeights at least one.
+     * @return at index p, the index of the weights under which the score of the
+     *         pair p is maximal, the first such index in case of ties.
+     */
+    public int[] getArgMax(List<PSRWeights> allWeights) {
+	checkArgument(!allWeights.isEmpty());
+	final int[] argMax = new int[nbPairs];
+	final double[] max = getScores(allWeights.get(0));
+	final double[] scores = new double[nbPairs];
+	for (int w = 1; w < allWeights.size(); ++w) {
+	    Arrays.fill(scores, 0d);
+	    accumulate(asArray(allWeights.get(w)), scores);
+	    for (int p = 0; p < nbPairs; ++p) {
+		if (scores[p] > max[p]) {
+		    max[p] = scores[p];
+		    argMax[p] = w;
+		}
+	    }
+	}
+	return argMax;
+    }
+
+    /**
+     * Adds, for each pair p, its score under the given weights to scores[p].
+     */
+    private void accumulate(double[] weights, double[] scores) {
+	ACCUMULATOR.accumulate(coefficientsByRank, nbPairs, weights, scores);
+    }
+
+    private double[] asArray(PSRWeights weights) {
+	checkArgument(weights.size() == m);
+	return Doubles.toArray(weights.getWeights());
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("m", m).add("Nb pairs", nbPairs).toString();
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.oliviercailloux.minimax.regret;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The accumulator of {@link ScoringKernel} that uses the incubating Vector API.
+ * Loaded only reflectively, so that its absence from the module graph at run
+ * time leads to the scalar loops rather than to an error.
+ *
+ * <p>
+ * Multiplies then adds, lane by lane, rather than using fused multiply-add, so
+ * that each score is rounded exactly as by the scalar loops.
+ * </p>
+ */
+class VectorAccumulator implements ScoringKernel.Accumulator {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void accumulate(double[] coefficientsByRank, int nbPairs, double[] weights, double[] scores) {
+	final int upperBound = SPECIES.loopBound(nbPairs);
+	for (int r = 0; r < weights.length; ++r) {
+	    final double weight = weights[r];
+	    final int offset = r * nbPairs;
+	    int p = 0;
+	    for (; p < upperBound; p += SPECIES.length()) {
+		final DoubleVector coefficients = DoubleVector.fromArray(SPECIES, coefficientsByRank, offset + p);
+		DoubleVector.fromArray(SPECIES, scores, p).add(coefficients.mul(weight)).intoArray(scores, p);
+	    }
+	    for (; p < nbPairs; ++p) {
+		scores[p] += coefficientsByRank[offset + p] * weight;
+	    }
+	}
+    }
+}
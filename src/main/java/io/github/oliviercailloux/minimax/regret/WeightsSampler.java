@@ -0,0 +1,102 @@
+package io.github.oliviercailloux.minimax.regret;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.jlp.elements.SumTerms;
+import io.github.oliviercailloux.jlp.elements.SumTermsBuilder;
+import io.github.oliviercailloux.minimax.elicitation.ConstraintsOnWeights;
+import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics.Caller;
+
+/**
+ * Samples extreme points of the polytope of the weights that satisfy some
+ * constraints on weights.
+ *
+ * <p>
+ * A vertex is obtained by optimizing a linear objective over the polytope. The
+ * sampler first uses the axis directions (maximizing then minimizing each free
+ * weight), then random directions drawn from a normal distribution, which lead
+ * to vertices with a probability that grows with the solid angle of their
+ * normal cone. Vertices that are found more than once are only kept once, thus
+ * the number of returned samples may be lower than the number asked for.
+ * </p>
+ * <p>
+ * Every returned sample is feasible, hence any PMR computed as a max over the
+ * samples is a lower bound of the exact PMR.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class WeightsSampler {
+    @SuppressWarnings("unused")
+    private static final Logger LOGGER = LoggerFactory.getLogger(WeightsSampler.class);
+
+    public static WeightsSampler given(ConstraintsOnWeights constraints, Random random) {
+	return new WeightsSampler(constraints, random);
+    }
+
+    private final ConstraintsOnWeights constraints;
+
+    private final Random random;
+
+    private WeightsSampler(ConstraintsOnWeights constraints, Random random) {
+	this.constraints = requireNonNull(constraints);
+	this.random = requireNonNull(random);
+    }
+
+    /**
+     * @param nbSamples at least one: the number of directions to optimize.
+     * @return at least one and at most {@code nbSamples} distinct feasible
+     *         weights, in the order they were found.
+     */
+    public ImmutableList<PSRWeights> sample(int nbSamples) {
+	checkArgument(nbSamples >= 1);
+	final int m = constraints.getM();
+	if (m <= 2) {
+	    /** Ranks 1 and m have fixed weights: the polytope is a single point. */
+	    try (SolverMetrics.Scope scope = SolverMetrics.as(Caller.SAMPLING)) {
+		return constraints.minimizeAll(ImmutableList.of(SumTerms.builder().build())).getAllWeights();
+	    }
+	}
+	final List<SumTerms> toMaximize = new ArrayList<>();
+	final List<SumTerms> toMinimize = new ArrayList<>();
+	for (int i = 0; i < nbSamples; ++i) {
+	    final int axis = 2 + i / 2;
+	    final SumTermsBuilder builder = SumTerms.builder();
+	    if (axis <= m - 1) {
+		builder.add(constraints.getTerm(1d, axis));
+		if (i % 2 == 0) {
+		    toMaximize.add(builder.build());
+		} else {
+		    toMinimize.add(builder.build());
+		}
+	    } else {
+		for (int rank = 2; rank <= m - 1; ++rank) {
+		    builder.add(constraints.getTerm(random.nextGaussian(), rank));
+		}
+		toMaximize.add(builder.build());
+	    }
+	}
+	final Set<PSRWeights> samples = new LinkedHashSet<>();
+	try (SolverMetrics.Scope scope = SolverMetrics.as(Caller.SAMPLING)) {
+	    samples.addAll(constraints.maximizeAll(toMaximize).getAllWeights());
+	    samples.addAll(constraints.minimizeAll(toMinimize).getAllWeights());
+	}
+	LOGGER.debug("Sampled {} distinct vertices out of {} directions.", samples.size(), nbSamples);
+	return ImmutableList.copyOf(samples);
+    }
+}
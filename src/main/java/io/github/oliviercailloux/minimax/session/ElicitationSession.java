@@ -0,0 +1,218 @@
+package io.github.oliviercailloux.minimax.session;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import io.github.oliviercailloux.minimax.elicitation.CommitteePreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.QuestionCommittee;
+import io.github.oliviercailloux.minimax.elicitation.QuestionVoter;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+import io.github.oliviercailloux.minimax.elicitation.VoterPreferenceInformation;
+import io.github.oliviercailloux.minimax.strategies.Strategy;
+import io.github.oliviercailloux.minimax.utils.Counters;
+
+/**
+ * A live elicitation with one committee: the knowledge gathered so far and the
+ * strategy that chooses the questions, both kept between two requests, so that
+ * they need not be rebuilt from the answers at each request.
+ *
+ * <p>
+ * The session alternates between asking a question ({@link #nextQuestion()})
+ * and receiving its answer ({@link #answer(PreferenceInformation)}). Questions
+ * are computed on the solver pool of the manager that created this session,
+ * thus, with the LP solver of one of its threads. The session keeps no LP
+ * state of its own: each thread caches only the program it optimized over last
+ * (see {@link io.github.oliviercailloux.minimax.elicitation.ImmutableConstraintsOnWeights}),
+ * which, when sessions interleave, is usually that of another session. Requests
+ * to a given session are serialized; requests to different sessions may proceed
+ * concurrently.
+ * </p>
+ * <p>
+ * Once the session has been closed or evicted by its manager, requesting a
+ * question or giving an answer fails.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class ElicitationSession {
+    @SuppressWarnings("unused")
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElicitationSession.class);
+
+    static ElicitationSession given(String id, UpdateablePreferenceKnowledge knowledge, Strategy strategy,
+	    ExecutorService solverPool) {
+	return new ElicitationSession(id, knowledge, strategy, solverPool);
+    }
+
+    private final String id;
+
+    private final UpdateablePreferenceKnowledge knowledge;
+
+    private final Strategy strategy;
+
+    private final ExecutorService solverPool;
+
+    private final List<Question> questions;
+
+    /**
+     * The question asked and not yet answered, if any.
+     */
+    private @Nullable Question pending;
+
+    private volatile long lastAccessNs;
+
+    private volatile boolean closed;
+
+    private ElicitationSession(String id, UpdateablePreferenceKnowledge knowledge, Strategy strategy,
+	    ExecutorService solverPool) {
+	this.id = requireNonNull(id);
+	this.knowledge = requireNonNull(knowledge);
+	this.strategy = requireNonNull(strategy);
+	this.solverPool = requireNonNull(solverPool);
+	questions = new ArrayList<>();
+	pending = null;
+	closed = false;
+	strategy.setKnowledge(knowledge);
+	touch();
+    }
+
+    public String getId() {
+	return id;
+    }
+
+    /**
+     * Returns the question to ask now. If the previous question has not been
+     * answered yet, returns that question again.
+     *
+     * @throws IllegalStateException if this session has been closed or evicted.
+     */
+    public synchronized Question nextQuestion() {
+	checkState(!closed, "Session closed or evicted.");
+	touch();
+	if (pending == null) {
+	    pending = callInPool(strategy::nextQuestion);
+	    questions.add(pending);
+	}
+	return pending;
+    }
+
+    /**
+     * @param answer must answer the pending question.
+     * @throws IllegalStateException if this session has been closed or evicted.
+     */
+    public synchronized void answer(PreferenceInformation answer) {
+	checkState(!closed, "Session closed or evicted.");
+	touch();
+	checkState(pending != null, "No pending question.");
+	checkArgument(answers(answer, pending), "Not an answer to " + pending + ".");
+	knowledge.update(answer);
+	pending = null;
+    }
+
+    /**
+     * @return {@code true} iff the answer concerns the same voter and
+     *         alternatives, or the same rank and lambda, as the question.
+     */
+    static boolean answers(PreferenceInformation answer, Question question) {
+	if (answer.getType() != question.getType()) {
+	    return false;
+	}
+	switch (question.getType()) {
+	case COMMITTEE_QUESTION:
+	    final QuestionCommittee qc = question.asQuestionCommittee();
+	    final CommitteePreferenceInformation c = answer.asCommitteeInformation();
+	    return c.getRank() == qc.getRank() && c.getLambda().compareTo(qc.getLambda()) == 0;
+	case VOTER_QUESTION:
+	    final QuestionVoter qv = question.asQuestionVoter();
+	    final VoterPreferenceInformation info = answer.asVoterInformation();
+	    return info.getVoter().equals(qv.getVoter()) && ImmutableSet
+		    .of(info.getBetterAlternative(), info.getWorstAlternative()).equals(qv.getAlternatives());
+	default:
+	    throw new AssertionError();
+	}
+    }
+
+    /**
+     * @return the questions asked so far, including the pending one, if any.
+     */
+    public synchronized ImmutableList<Question> getQuestions() {
+	return ImmutableList.copyOf(questions);
+    }
+
+    public synchronized boolean hasPendingQuestion() {
+	return pending != null;
+    }
+
+    public boolean isClosed() {
+	return closed;
+    }
+
+    /**
+     * Called by the manager when it forgets this session.
+     */
+    void close() {
+	closed = true;
+    }
+
+    /**
+     * @return the value of {@link System#nanoTime()} at the last request to this
+     *         session.
+     */
+    long getLastAccessNs() {
+	return lastAccessNs;
+    }
+
+    private void touch() {
+	lastAccessNs = System.nanoTime();
+    }
+
+    /**
+     * Calls the task in the pool, recording the events it counts into the
+     * counters of the calling thread.
+     */
+    private <T> T callInPool(Callable<T> task) {
+	final Counters counters = Counters.current();
+	try {
+	    return solverPool.submit(() -> {
+		try (Counters.Scope scope = counters.bind()) {
+		    return task.call();
+		}
+	    }).get();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new IllegalStateException(e);
+	} catch (ExecutionException e) {
+	    final Throwable cause = e.getCause();
+	    if (cause instanceof RuntimeException) {
+		throw (RuntimeException) cause;
+	    }
+	    if (cause instanceof Error) {
+		throw (Error) cause;
+	    }
+	    throw new IllegalStateException(cause);
+	}
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Id", id).add("Nb questions", questions.size())
+		.add("Pending", pending).add("Closed", closed).toString();
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.oliviercailloux.minimax.session;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.minimax.elicitation.Oracle;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.experiment.Run;
+import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+
+/**
+ * Drives a session of a manager, in the same JVM, by answering its questions
+ * with an oracle, as a remote committee would. Contrary to the
+ * {@link io.github.oliviercailloux.minimax.experiment.Runner}, the time
+ * recorded for a question excludes the setup of the knowledge and strategy,
+ * which happens once, when the session is opened.
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class LoopbackDriver {
+    @SuppressWarnings("unused")
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoopbackDriver.class);
+
+    /**
+     * Opens a session, asks k questions in it, then closes it.
+     *
+     * @param k at least one.
+     */
+    public static Run run(SessionManager manager, StrategyFactory factory, Oracle oracle, int k) {
+	checkArgument(k >= 1);
+	return run(manager, manager.open(oracle.getAlternatives(), oracle.getProfile().keySet(), factory), oracle,
+		k);
+    }
+
+    /**
+     * Opens a session whose strategy is the one of the run of the given index, in
+     * the sense of {@link StrategyFactory#get(int)}, asks k questions in it, then
+     * closes it. With per-run streams, the questions are those of
+     * {@link io.github.oliviercailloux.minimax.experiment.Runner#run(StrategyFactory, Oracle, int, int)}
+     * with the same index.
+     *
+     * @param k        at least one.
+     * @param runIndex non-negative.
+     */
+    public static Run run(SessionManager manager, StrategyFactory factory, Oracle oracle, int k, int runIndex) {
+	checkArgument(k >= 1);
+	return run(manager,
+		manager.open(oracle.getAlternatives(), oracle.getProfile().keySet(), factory, runIndex), oracle, k);
+    }
+
+    private static Run run(SessionManager manager, ElicitationSession session, Oracle oracle, int k) {
+	try {
+	    final ImmutableList.Builder<Long> tBuilder = ImmutableList.builder();
+	    for (int i = 1; i <= k; i++) {
+		tBuilder.add(System.currentTimeMillis());
+		final Question q = session.nextQuestion();
+		session.answer(oracle.getPreferenceInformation(q));
+		LOGGER.debug("Asked {}.", q);
+	    }
+	    final long endTime = System.currentTimeMillis();
+	    return Run.of(oracle, tBuilder.build(), session.getQuestions(), endTime);
+	} finally {
+	    manager.close(session.getId());
+	}
+    }
+
+    private LoopbackDriver() {
+    }
+}
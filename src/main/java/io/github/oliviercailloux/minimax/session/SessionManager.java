@@ -0,0 +1,176 @@
+package io.github.oliviercailloux.minimax.session;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+import io.github.oliviercailloux.minimax.strategies.Strategy;
+import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+
+/**
+ * Hosts live {@link ElicitationSession elicitation sessions}, keyed by id.
+ *
+ * <p>
+ * The questions of all sessions are computed on a fixed pool of threads, each
+ * of which keeps its own LP solver (see
+ * {@link io.github.oliviercailloux.minimax.elicitation.ImmutableConstraintsOnWeights}),
+ * thus, the number of solver instances is bounded by the size of the pool,
+ * whatever the number of sessions. A session that has not been accessed for
+ * longer than the idle timeout is evicted.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class SessionManager implements AutoCloseable {
+    @SuppressWarnings("unused")
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionManager.class);
+
+    /**
+     * @param nbSolvers   at least one: the maximal number of questions computed
+     *                    concurrently.
+     * @param idleTimeout positive.
+     */
+    public static SessionManager create(int nbSolvers, Duration idleTimeout) {
+	return new SessionManager(nbSolvers, idleTimeout);
+    }
+
+    private static ThreadFactory getDaemonThreadFactory(String prefix) {
+	final AtomicInteger count = new AtomicInteger();
+	return (r) -> {
+	    final Thread thread = new Thread(r, prefix + "-" + count.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	};
+    }
+
+    private final ConcurrentMap<String, ElicitationSession> sessions;
+
+    private final ExecutorService solverPool;
+
+    private final ScheduledExecutorService evicter;
+
+    private final long idleTimeoutNs;
+
+    private SessionManager(int nbSolvers, Duration idleTimeout) {
+	checkArgument(nbSolvers >= 1);
+	checkArgument(!idleTimeout.isNegative() && !idleTimeout.isZero());
+	sessions = new ConcurrentHashMap<>();
+	solverPool = Executors.newFixedThreadPool(nbSolvers, getDaemonThreadFactory("solver"));
+	idleTimeoutNs = idleTimeout.toNanos();
+	evicter = Executors.newSingleThreadScheduledExecutor(getDaemonThreadFactory("session-evicter"));
+	final long periodNs = Math.max(idleTimeoutNs / 2l, 1l);
+	evicter.scheduleAtFixedRate(this::evictIdle, periodNs, periodNs, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Opens a new session, with no knowledge about the given committee.
+     *
+     * @param alternatives at least two.
+     * @param voters       at least one.
+     */
+    public ElicitationSession open(Set<Alternative> alternatives, Set<Voter> voters, StrategyFactory factory) {
+	return open(alternatives, voters, factory.get());
+    }
+
+    /**
+     * Opens a new session, with no knowledge about the given committee, whose
+     * strategy is the one of the run of the given index, in the sense of
+     * {@link StrategyFactory#get(int)}.
+     *
+     * @param alternatives at least two.
+     * @param voters       at least one.
+     * @param runIndex     non-negative.
+     */
+    public ElicitationSession open(Set<Alternative> alternatives, Set<Voter> voters, StrategyFactory factory,
+	    int runIndex) {
+	return open(alternatives, voters, factory.get(runIndex));
+    }
+
+    private ElicitationSession open(Set<Alternative> alternatives, Set<Voter> voters, Strategy strategy) {
+	final UpdateablePreferenceKnowledge knowledge = UpdateablePreferenceKnowledge.given(alternatives, voters);
+	final String id = UUID.randomUUID().toString();
+	final ElicitationSession session = ElicitationSession.given(id, knowledge, strategy, solverPool);
+	sessions.put(id, session);
+	LOGGER.debug("Opened session {}.", id);
+	return session;
+    }
+
+    /**
+     * @return the session with that id, if it exists and has not been evicted or
+     *         closed.
+     */
+    public Optional<ElicitationSession> get(String id) {
+	return Optional.ofNullable(sessions.get(id));
+    }
+
+    /**
+     * Closes the session with that id, if it exists.
+     */
+    public void close(String id) {
+	final ElicitationSession session = sessions.remove(id);
+	if (session != null) {
+	    session.close();
+	}
+    }
+
+    public int getNbSessions() {
+	return sessions.size();
+    }
+
+    /**
+     * Removes the sessions that have been idle for longer than the timeout. Called
+     * periodically; may also be called explicitly.
+     */
+    public void evictIdle() {
+	final long now = System.nanoTime();
+	boolean removed = false;
+	for (ElicitationSession session : sessions.values()) {
+	    if (now - session.getLastAccessNs() > idleTimeoutNs && sessions.remove(session.getId(), session)) {
+		session.close();
+		removed = true;
+	    }
+	}
+	if (removed) {
+	    LOGGER.debug("Evicted idle sessions, {} remain.", sessions.size());
+	}
+    }
+
+    /**
+     * Closes all sessions and stops the threads of this manager.
+     */
+    @Override
+    public void close() {
+	evicter.shutdownNow();
+	solverPool.shutdownNow();
+	for (ElicitationSession session : sessions.values()) {
+	    session.close();
+	}
+	sessions.clear();
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Nb sessions", sessions.size())
+		.add("Idle timeout", Duration.ofNanos(idleTimeoutNs)).toString();
+    }
+}
@@ -14,7 +14,6 @@ import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.apfloat.Apint;
@@ -24,6 +23,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedMultiset;
@@ -43,6 +43,8 @@ import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowled
 import io.github.oliviercailloux.minimax.regret.PairwiseMaxRegret;
 import io.github.oliviercailloux.minimax.regret.RegretComputer;
 import io.github.oliviercailloux.minimax.regret.Regrets;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics.Caller;
 
 public class Helper {
     @SuppressWarnings("unused")
@@ -184,33 +186,29 @@ public class Helper {
     }
 
     public ImmutableSet<Voter> getQuestionableVoters() {
-	return getKnowledge().getVoters().stream().filter(v -> getKnowledge().getPartialPreference(v)
-		.asTransitiveGraph().edges().size() != getM() * (getM() - 1) / 2)
-		.collect(ImmutableSet.toImmutableSet());
+	return getKnowledge().getQuestionableVoters();
     }
 
     public ImmutableSet<QuestionVoter> getPossibleVoterQuestions() {
-	return getKnowledge().getVoters().stream().flatMap(this::getPossibleVoterQuestions)
+	return getQuestionableVoters().stream().flatMap(this::getPossibleVoterQuestions)
 		.collect(ImmutableSet.toImmutableSet());
     }
 
     private Stream<QuestionVoter> getPossibleVoterQuestions(Voter voter) {
-	final Graph<Alternative> graph = knowledge.getProfile().get(voter).asTransitiveGraph();
-	final Stream<QuestionVoter> possibleVoterQuestions = getIncomparablePairs(graph).stream()
+	final Stream<QuestionVoter> possibleVoterQuestions = getKnowledge().getIncomparablePairs(voter).stream()
 		.map(p -> QuestionVoter.given(voter, p.nodeU(), p.nodeV()));
 	return possibleVoterQuestions;
     }
 
     private ImmutableSet<Integer> getRanksWithLambdaRangesWiderThan(double threshold) {
-	return IntStream.rangeClosed(1, getM() - 2).boxed().filter(r -> getWidthOfLambdaRangeAtRank(r) > threshold)
-		.collect(ImmutableSet.toImmutableSet());
-    }
-
-    private double getWidthOfLambdaRangeAtRank(int rank) {
-	checkArgument(rank >= 1);
-	checkArgument(rank <= getM() - 2);
-	final Range<Aprational> lambdaRange = getKnowledge().getLambdaRange(rank);
-	return (lambdaRange.upperEndpoint().subtract(lambdaRange.lowerEndpoint())).doubleValue();
+	final UpdateablePreferenceKnowledge k = getKnowledge();
+	final ImmutableSet.Builder<Integer> builder = ImmutableSet.builder();
+	for (int rank = 1; rank <= getM() - 2; ++rank) {
+	    if (k.getLambdaRangeWidth(rank) > threshold) {
+		builder.add(rank);
+	    }
+	}
+	return builder.build();
     }
 
     public ImmutableSet<QuestionCommittee> getQuestionsAboutLambdaRangesWiderThan(double threshold) {
@@ -244,19 +242,61 @@ public class Helper {
      * @param rank 1 ≤ rank ≤ m − 2
      */
     public QuestionCommittee getQuestionAboutHalfRange(int rank) {
-	final Range<Aprational> lambdaRange = getKnowledge().getLambdaRange(rank);
-	final Aprational avg = AprationalMath.sum(lambdaRange.lowerEndpoint(), lambdaRange.upperEndpoint())
-		.divide(new Apint(2));
-	return QuestionCommittee.given(avg, rank);
+	return QuestionCommittee.given(getKnowledge().getLambdaRangeMidpoint(rank), rank);
+    }
+
+    /**
+     * Returns, for each rank whose lambda range is not a single point, the
+     * nbSplits values that split that range into nbSplits + 1 parts of equal
+     * width; and the ratio of differences of weights at that rank of each of the
+     * weights realizing the given PMRs, rounded to the nearest thousandth, when
+     * it lies strictly inside the range. Whatever the answer to a question about
+     * such a ratio, the corresponding adversarial weights are ruled out.
+     *
+     * @param nbSplits at least one.
+     * @param pmrs     typically, the PMRs of the alternatives that have minimal
+     *                 max regret.
+     */
+    public ImmutableSet<QuestionCommittee> getCommitteeQuestionCandidates(int nbSplits,
+	    Collection<PairwiseMaxRegret> pmrs) {
+	checkArgument(nbSplits >= 1);
+	final Apint nbParts = new Apint(nbSplits + 1);
+	final Apint thousand = new Apint(1000);
+	final ImmutableSet.Builder<QuestionCommittee> builder = ImmutableSet.builder();
+	for (int rank = 1; rank <= getM() - 2; ++rank) {
+	    final Range<Aprational> lambdaRange = getKnowledge().getLambdaRange(rank);
+	    final Aprational lower = lambdaRange.lowerEndpoint();
+	    final Aprational upper = lambdaRange.upperEndpoint();
+	    if (lower.compareTo(upper) == 0) {
+		continue;
+	    }
+	    final Aprational width = upper.subtract(lower);
+	    for (int i = 1; i <= nbSplits; ++i) {
+		final Aprational split = AprationalMath.sum(lower, width.multiply(new Apint(i)).divide(nbParts));
+		builder.add(QuestionCommittee.given(split, rank));
+	    }
+	    for (PairwiseMaxRegret pmr : pmrs) {
+		final PSRWeights weights = pmr.getWeights();
+		final double nextDifference = weights.getWeightAtRank(rank + 1) - weights.getWeightAtRank(rank + 2);
+		if (nextDifference < ConstraintsOnWeights.EPSILON) {
+		    continue;
+		}
+		final double ratio = (weights.getWeightAtRank(rank) - weights.getWeightAtRank(rank + 1))
+			/ nextDifference;
+		final Aprational lambda = new Aprational(new Apint(Math.round(ratio * 1000d)), thousand);
+		if (lower.compareTo(lambda) < 0 && lambda.compareTo(upper) < 0) {
+		    builder.add(QuestionCommittee.given(lambda, rank));
+		}
+	    }
+	}
+	return builder.build();
     }
 
     /**
      * @param m ≥ 3
      */
     public QuestionCommittee getQuestionAboutWidestRange() {
-	final int maxWidthRank = IntStream.rangeClosed(1, getM() - 2).boxed()
-		.max(Comparator.comparing(this::getWidthOfLambdaRangeAtRank)).get();
-	return getQuestionAboutHalfRange(maxWidthRank);
+	return getQuestionAboutHalfRange(getKnowledge().getWidestLambdaRangeRank());
     }
 
     public RegretComputer getRegretComputer() {
@@ -277,7 +317,8 @@ public class Helper {
 
 	final SumTerms sumTerms = regretComputer.getTermScoreYMinusScoreX(multiSetOfRanksOfY, multiSetOfRanksOfX);
 	final ConstraintsOnWeights cow = getKnowledge().getConstraintsOnWeights();
-	cow.minimize(sumTerms);
-	return cow.getLastSolution();
+	try (SolverMetrics.Scope scope = SolverMetrics.as(Caller.MIN_TAU_W)) {
+	    return cow.minimizeAll(ImmutableList.of(sumTerms)).getWeights(0);
+	}
     }
 }
@@ -0,0 +1,269 @@
+package io.github.oliviercailloux.minimax.strategies;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.VerifyException;
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.minimax.elicitation.CommitteePreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.KnowledgeSnapshot;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+import io.github.oliviercailloux.minimax.utils.Counters;
+
+/**
+ * Wraps strategies so that, while the answer to a question is pending, the next
+ * question is computed in the background for both possible answers. When the
+ * next question is requested and the knowledge has received exactly one update
+ * since the last question, an update that is exactly one of the two possible
+ * answers (same voter and alternatives, or same rank, operator and lambda), the
+ * question precomputed for that answer is served (waiting for its computation
+ * to end if necessary), and the other one is discarded. Otherwise, for example
+ * when the committee answered that the ratio equals lambda, or when the update
+ * concerns another question, the next question is computed as usual.
+ *
+ * <p>
+ * Each branch is computed by a new strategy, obtained from the given supplier
+ * and given the {@link Strategy#getState() state} of the current strategy (its
+ * random source and its count of questions asked), over a copy of the knowledge
+ * updated with the hypothetical answer; the strategy that computed the question
+ * that is served then becomes the current one. The questions served are thus
+ * those that the current strategy would have asked. The copy is made by the
+ * branch, from a {@link KnowledgeSnapshot} taken when speculating, which shares
+ * the transitive closures of the preferences rather than copying them. Each
+ * branch counts its events (see {@link Counters}) into its own counters, which
+ * are added to those of the caller when its question is served, so that the
+ * caller sees the work of the questions it asks, as without speculation, but
+ * not the work of the discarded branches.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class SpeculativeStrategy implements Strategy {
+    @SuppressWarnings("unused")
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpeculativeStrategy.class);
+
+    /**
+     * @param factory  provides a new strategy for each branch.
+     * @param executor runs the branches; not shut down by this object.
+     */
+    public static SpeculativeStrategy given(Supplier<? extends Strategy> factory, ExecutorService executor) {
+	return new SpeculativeStrategy(factory, executor);
+    }
+
+    /**
+     * Returns a strategy that obtains its strategies for the run of the given
+     * index, in the sense of {@link StrategyFactory#get(int)}, so that, with
+     * per-run streams, its questions do not depend on the other runs.
+     *
+     * @param executor runs the branches; not shut down by this object.
+     */
+    public static SpeculativeStrategy given(StrategyFactory factory, int runIndex, ExecutorService executor) {
+	checkArgument(runIndex >= 0);
+	return new SpeculativeStrategy(() -> factory.get(runIndex), executor);
+    }
+
+    private static class Outcome {
+	private final Strategy strategy;
+
+	private final Question question;
+
+	/**
+	 * The events counted while computing the question.
+	 */
+	private final Counters counters;
+
+	private Outcome(Strategy strategy, Question question, Counters counters) {
+	    this.strategy = requireNonNull(strategy);
+	    this.question = requireNonNull(question);
+	    this.counters = requireNonNull(counters);
+	}
+    }
+
+    private static class Branch {
+	private final PreferenceInformation answer;
+
+	private final Future<Outcome> outcome;
+
+	private Branch(PreferenceInformation answer, Future<Outcome> outcome) {
+	    this.answer = requireNonNull(answer);
+	    this.outcome = requireNonNull(outcome);
+	}
+    }
+
+    private final Supplier<? extends Strategy> factory;
+
+    private final ExecutorService executor;
+
+    private @Nullable UpdateablePreferenceKnowledge knowledge;
+
+    private @Nullable Strategy current;
+
+    /**
+     * Empty iff not speculating.
+     */
+    private ImmutableList<Branch> branches;
+
+    /**
+     * The number of updates of the knowledge when the branches were started.
+     */
+    private long nbUpdatesAtSpeculation;
+
+    private int nbServed;
+
+    private SpeculativeStrategy(Supplier<? extends Strategy> factory, ExecutorService executor) {
+	this.factory = requireNonNull(factory);
+	this.executor = requireNonNull(executor);
+	knowledge = null;
+	current = null;
+	branches = ImmutableList.of();
+	nbServed = 0;
+    }
+
+    @Override
+    public void setKnowledge(UpdateablePreferenceKnowledge knowledge) {
+	discardBranches();
+	this.knowledge = requireNonNull(knowledge);
+	current = factory.get();
+	current.setKnowledge(knowledge);
+    }
+
+    @Override
+    public Question nextQuestion() {
+	checkState(knowledge != null && current != null);
+	final Optional<Outcome> speculated = getSpeculatedOutcome();
+	discardBranches();
+
+	final Question question;
+	if (speculated.isPresent()) {
+	    ++nbServed;
+	    Counters.current().addAll(speculated.get().counters);
+	    current = speculated.get().strategy;
+	    current.setKnowledge(knowledge);
+	    question = speculated.get().question;
+	} else {
+	    question = current.nextQuestion();
+	}
+	speculate(question);
+	return question;
+    }
+
+    /**
+     * @return the state of the strategy that asks the questions currently.
+     */
+    @Override
+    public StrategyState getState() {
+	checkState(current != null);
+	return current.getState();
+    }
+
+    @Override
+    public void setState(StrategyState state) {
+	checkState(current != null);
+	discardBranches();
+	current.setState(state);
+    }
+
+    /**
+     * @return the number of questions that have been served from a precomputed
+     *         branch.
+     */
+    public int getNbServed() {
+	return nbServed;
+    }
+
+    private void speculate(Question question) {
+	nbUpdatesAtSpeculation = knowledge.getNbUpdates();
+	/**
+	 * Taken now, as the knowledge and the current strategy may change as soon as
+	 * this method returns.
+	 */
+	final KnowledgeSnapshot snapshot = knowledge.getSnapshot();
+	final StrategyState state = current.getState();
+	final ImmutableList.Builder<Branch> builder = ImmutableList.builder();
+	for (PreferenceInformation answer : ImmutableList.of(question.getPositiveInformation(),
+		question.getNegativeInformation())) {
+	    final Future<Outcome> outcome = executor.submit(() -> {
+		/** Merged into the counters of the caller only if the branch is served. */
+		final Counters counters = Counters.create();
+		try (Counters.Scope scope = counters.bind()) {
+		    final UpdateablePreferenceKnowledge copy = UpdateablePreferenceKnowledge.copyOf(snapshot);
+		    copy.update(answer);
+		    final Strategy strategy = factory.get();
+		    strategy.setKnowledge(copy);
+		    strategy.setState(state);
+		    return new Outcome(strategy, strategy.nextQuestion(), counters);
+		}
+	    });
+	    builder.add(new Branch(answer, outcome));
+	}
+	branches = builder.build();
+    }
+
+    private Optional<Outcome> getSpeculatedOutcome() {
+	if (branches.isEmpty() || knowledge.getNbUpdates() != nbUpdatesAtSpeculation + 1l) {
+	    return Optional.empty();
+	}
+	final Optional<PreferenceInformation> received = knowledge.getLastInformation();
+	if (!received.isPresent()) {
+	    return Optional.empty();
+	}
+	for (Branch branch : branches) {
+	    if (isSame(received.get(), branch.answer)) {
+		try {
+		    return Optional.of(branch.outcome.get());
+		} catch (InterruptedException e) {
+		    Thread.currentThread().interrupt();
+		    return Optional.empty();
+		} catch (ExecutionException e) {
+		    /**
+		     * For example, the hypothetical answer contradicts what is known (as may
+		     * happen with dummy questions), thus, it has not been received.
+		     */
+		    LOGGER.debug("Branch failed.", e.getCause());
+		    return Optional.empty();
+		}
+	    }
+	}
+	return Optional.empty();
+    }
+
+    private void discardBranches() {
+	for (Branch branch : branches) {
+	    branch.outcome.cancel(true);
+	}
+	branches = ImmutableList.of();
+    }
+
+    private static boolean isSame(PreferenceInformation received, PreferenceInformation answer) {
+	if (received.getType() != answer.getType()) {
+	    return false;
+	}
+	switch (answer.getType()) {
+	case VOTER_QUESTION:
+	    return received.asVoterInformation().equals(answer.asVoterInformation());
+	case COMMITTEE_QUESTION: {
+	    final CommitteePreferenceInformation r = received.asCommitteeInformation();
+	    final CommitteePreferenceInformation a = answer.asCommitteeInformation();
+	    return r.getRank() == a.getRank() && r.getOperator() == a.getOperator()
+		    && r.getLambda().compareTo(a.getLambda()) == 0;
+	}
+	default:
+	    throw new VerifyException();
+	}
+    }
+}
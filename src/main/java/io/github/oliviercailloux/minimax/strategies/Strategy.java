@@ -29,4 +29,17 @@ public interface Strategy {
      *                               profile is complete.
      */
     public Question nextQuestion();
+
+    /**
+     * @return the state of this strategy that is not derived from its knowledge,
+     *         so that it may be restored later, for example to resume an
+     *         experiment.
+     */
+    public StrategyState getState();
+
+    /**
+     * Restores a state obtained from {@link #getState()} from a strategy of the
+     * same kind.
+     */
+    public void setState(StrategyState state);
 }
@@ -75,6 +75,15 @@ public class StrategyByMmr implements Strategy {
 	    ++asked;
 	}
 
+	public int getAsked() {
+	    return asked;
+	}
+
+	public void setAsked(int asked) {
+	    checkArgument(asked >= 0);
+	    this.asked = asked;
+	}
+
 	public boolean hasCurrentConstraint() {
 	    if (!constraints.isEmpty() && constraints.get(constraints.size() - 1).getNumber() == Integer.MAX_VALUE) {
 		return true;
@@ -146,6 +155,11 @@ public class StrategyByMmr implements Strategy {
 
     private double penalty;
 
+    /**
+     * Zero to propose, at each rank, the midpoint of the lambda range only.
+     */
+    private int nbCommitteeSplits;
+
     private StrategyByMmr(Comparator<MmrLottery> lotteryComparator, boolean limited,
 	    List<QuestioningConstraint> constraints, double penalty) {
 	checkArgument(penalty >= 1d);
@@ -153,6 +167,7 @@ public class StrategyByMmr implements Strategy {
 	this.limited = limited;
 	this.constraints = QuestioningConstraints.of(constraints);
 	this.penalty = penalty;
+	nbCommitteeSplits = 0;
 
 	helper = Helper.newInstance();
 	questions = null;
@@ -172,6 +187,17 @@ public class StrategyByMmr implements Strategy {
 	helper.setKnowledge(knowledge);
     }
 
+    @Override
+    public StrategyState getState() {
+	return StrategyState.given(helper.getRandom(), constraints.getAsked());
+    }
+
+    @Override
+    public void setState(StrategyState state) {
+	helper.setRandom(state.getRandom());
+	constraints.setAsked(state.getNbAsked());
+    }
+
     public boolean isLimited() {
 	return limited;
     }
@@ -180,6 +206,25 @@ public class StrategyByMmr implements Strategy {
 	this.limited = limited;
     }
 
+    public int getNbCommitteeSplits() {
+	return nbCommitteeSplits;
+    }
+
+    /**
+     * Sets the number of split points of each lambda range that the committee
+     * may be asked about, besides the midpoints of these ranges and the ratios
+     * that the weights realizing the current minimal max regrets give to these
+     * ranks.
+     *
+     * @param nbCommitteeSplits zero (the default) to propose the midpoints only;
+     *                          otherwise, see
+     *                          {@link Helper#getCommitteeQuestionCandidates(int, java.util.Collection)}.
+     */
+    public void setNbCommitteeSplits(int nbCommitteeSplits) {
+	checkArgument(nbCommitteeSplits >= 0);
+	this.nbCommitteeSplits = nbCommitteeSplits;
+    }
+
     @Override
     public Question nextQuestion() {
 	final int m = helper.getAndCheckM();
@@ -203,11 +248,12 @@ public class StrategyByMmr implements Strategy {
 	verify(allowCommittee || allowVoters);
 
 	final ImmutableSet.Builder<Question> questionsBuilder = ImmutableSet.builder();
+	/** Computed only when needed, at most once. */
+	ImmutableSetMultimap<Alternative, PairwiseMaxRegret> mmrs = null;
 
 	if (limited) {
 	    if (allowVoters) {
-		final ImmutableSetMultimap<Alternative, PairwiseMaxRegret> mmrs = helper.getMinimalMaxRegrets()
-			.asMultimap();
+		mmrs = helper.getMinimalMaxRegrets().asMultimap();
 
 		final Alternative xStar = helper.drawFromStrictlyIncreasing(mmrs.keySet().asList(),
 			Comparator.naturalOrder());
@@ -232,6 +278,13 @@ public class StrategyByMmr implements Strategy {
 			.forEach(q -> questionsBuilder.add(Question.toCommittee(q)));
 	    }
 	}
+	if (allowCommittee && nbCommitteeSplits >= 1) {
+	    if (mmrs == null) {
+		mmrs = helper.getMinimalMaxRegrets().asMultimap();
+	    }
+	    helper.getCommitteeQuestionCandidates(nbCommitteeSplits, mmrs.values()).stream()
+		    .forEach(q -> questionsBuilder.add(Question.toCommittee(q)));
+	}
 	constraints.next();
 
 	questions = questionsBuilder.build().stream().collect(ImmutableMap.toImmutableMap(q -> q, this::toLottery));
@@ -285,7 +338,7 @@ public class StrategyByMmr implements Strategy {
 	    question = getQuestionAboutIncomparableTo(voter, graph, tryFirst)
 		    .or(() -> getQuestionAboutIncomparableTo(voter, graph, trySecond))
 		    .orElseGet(() -> getQuestionAbout(voter,
-			    helper.sortAndDraw(Helper.getIncomparablePairs(graph).asList(), c2)));
+			    helper.sortAndDraw(helper.getKnowledge().getIncomparablePairs(voter).asList(), c2)));
 	}
 	return question;
     }
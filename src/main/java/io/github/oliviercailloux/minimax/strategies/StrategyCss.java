@@ -45,6 +45,16 @@ public class StrategyCss implements Strategy {
 	helper.setRandom(random);
     }
 
+    @Override
+    public StrategyState getState() {
+	return StrategyState.given(helper.getRandom(), 0);
+    }
+
+    @Override
+    public void setState(StrategyState state) {
+	helper.setRandom(state.getRandom());
+    }
+
     @Override
     public Question nextQuestion() {
 	final ImmutableSetMultimap<Alternative, PairwiseMaxRegret> mmrs = helper.getMinimalMaxRegrets().asMultimap();
@@ -44,6 +44,21 @@ public class StrategyElitist implements Strategy {
 	helper.setKnowledge(knowledge);
     }
 
+    /**
+     * This strategy draws nothing at random and asks no question depending on how
+     * many it has asked; its state is thus irrelevant, but is kept for
+     * uniformity.
+     */
+    @Override
+    public StrategyState getState() {
+	return StrategyState.given(helper.getRandom(), 0);
+    }
+
+    @Override
+    public void setState(StrategyState state) {
+	helper.setRandom(state.getRandom());
+    }
+
     @Override
     public Question nextQuestion() {
 	checkState(helper != null);
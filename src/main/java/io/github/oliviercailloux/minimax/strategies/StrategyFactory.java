@@ -8,10 +8,13 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonString;
 
@@ -42,38 +45,56 @@ public class StrategyFactory implements Supplier<Strategy> {
 	};
 
 	final StrategyType family = StrategyType.valueOf(familyJson.getString());
+	final StrategyFactory factory;
 	switch (family) {
 	case PESSIMISTIC:
-	    return byMmrs(json.getJsonNumber("seed").longValue(), MmrLottery.MAX_COMPARATOR);
+	    factory = byMmrs(json.getJsonNumber("seed").longValue(), MmrLottery.MAX_COMPARATOR);
+	    break;
 	case PESSIMISTIC_HEURISTIC:
-	    return limited(json.getJsonNumber("seed").longValue(), JsonbUtils
+	    factory = limited(json.getJsonNumber("seed").longValue(), JsonbUtils
 		    .fromJson(json.getJsonArray("constraints").toString(), typeQc.getClass().getGenericSuperclass()));
+	    break;
 	case LIMITED:
 	    final String comparatorDescription = json.getString("comparator");
-	    return limited(json.getJsonNumber("seed").longValue(),
+	    factory = limited(json.getJsonNumber("seed").longValue(),
 		    MmrLottery.comparatorFromDescription(comparatorDescription),
 		    JsonbUtils.fromJson(json.getJsonArray("constraints").toString(),
 			    typeQc.getClass().getGenericSuperclass()),
-		    json.getJsonNumber("penalty").doubleValue());
+		    json.getJsonNumber("penalty").doubleValue(), json.getInt("committeeSplits", 0));
+	    break;
 	case ELITIST:
-	    return elitist();
+	    factory = elitist();
+	    break;
 	case CSS:
-	    return css(json.getJsonNumber("seed").longValue());
+	    factory = css(json.getJsonNumber("seed").longValue());
+	    break;
 	case RANDOM:
-	    return random(json.getJsonNumber("seed").longValue(),
+	    factory = random(json.getJsonNumber("seed").longValue(),
 		    json.getJsonNumber("probabilityCommittee").doubleValue(), json.getBoolean("toVoters", false));
+	    break;
 	case TWO_PHASES_HEURISTIC:
 	default:
 	    throw new UnsupportedOperationException("" + family);
 	}
+	return json.getBoolean("perRunStreams", false) ? factory.perRunStreams() : factory;
+    }
+
+    /**
+     * @return a seed that depends only on the given ones, mixed through
+     *         {@link SplittableRandom} so that consecutive run indices give
+     *         unrelated seeds.
+     */
+    static long getRunSeed(long seed, int runIndex) {
+	checkArgument(runIndex >= 0);
+	final long base = new SplittableRandom(seed).nextLong();
+	return new SplittableRandom(base + runIndex).nextLong();
     }
 
     public static StrategyFactory byMmrs(long seed, Comparator<MmrLottery> comparator) {
-	final Random random = new Random(seed);
 	final PrintableJsonObject json = JsonbUtils.toJsonObject(
 		ImmutableMap.of("family", StrategyType.PESSIMISTIC, "seed", seed, "comparator", comparator));
 
-	return new StrategyFactory(() -> {
+	return new StrategyFactory(seed, random -> {
 	    final StrategyByMmr strategy = StrategyByMmr.build(comparator);
 	    strategy.setRandom(random);
 	    return strategy;
@@ -86,12 +107,10 @@ public class StrategyFactory implements Supplier<Strategy> {
     }
 
     public static StrategyFactory css(long seed) {
-	final Random random = new Random(seed);
-
 	final PrintableJsonObject json = JsonbUtils
 		.toJsonObject(ImmutableMap.of("family", StrategyType.CSS, "seed", seed));
 
-	return new StrategyFactory(() -> {
+	return new StrategyFactory(seed, random -> {
 	    final StrategyCss strategy = StrategyCss.newInstance();
 	    strategy.setRandom(random);
 	    return strategy;
@@ -132,12 +151,26 @@ public class StrategyFactory implements Supplier<Strategy> {
 
     public static StrategyFactory limited(long seed, ComparatorWithDescription<MmrLottery> comparator,
 	    List<QuestioningConstraint> constraints, double penalty) {
+	return limited(seed, comparator, constraints, penalty, 0);
+    }
+
+    /**
+     * @param nbCommitteeSplits see {@link StrategyByMmr#setNbCommitteeSplits(int)}.
+     */
+    public static StrategyFactory limited(long seed, ComparatorWithDescription<MmrLottery> comparator,
+	    List<QuestioningConstraint> constraints, double penalty, int nbCommitteeSplits) {
+	checkArgument(nbCommitteeSplits >= 0);
 	LOGGER.info("Using seed {}.", seed);
-	final Random random = new Random(seed);
 
 	final String comparatorDescription = comparator.toString();
-	final PrintableJsonObject json = JsonbUtils.toJsonObject(ImmutableMap.of("family", StrategyType.LIMITED, "seed",
-		seed, "comparator", comparatorDescription, "constraints", constraints, "penalty", penalty));
+	final ImmutableMap.Builder<String, Object> jsonBuilder = ImmutableMap.builder();
+	jsonBuilder.put("family", StrategyType.LIMITED).put("seed", seed).put("comparator", comparatorDescription)
+		.put("constraints", constraints).put("penalty", penalty);
+	/** Only when used, so that the existing descriptions stay unchanged. */
+	if (nbCommitteeSplits >= 1) {
+	    jsonBuilder.put("committeeSplits", nbCommitteeSplits);
+	}
+	final PrintableJsonObject json = JsonbUtils.toJsonObject(jsonBuilder.build());
 
 	final String prefix = constraints.isEmpty() ? "" : ", constrained to [";
 	final String suffix = constraints.isEmpty() ? "" : "]";
@@ -146,17 +179,20 @@ public class StrategyFactory implements Supplier<Strategy> {
 			+ (c.getKind() == QuestionType.COMMITTEE_QUESTION ? "c" : "v"))
 		.collect(Collectors.joining(", ", prefix, suffix));
 
-	return new StrategyFactory(() -> {
+	return new StrategyFactory(seed, random -> {
 	    final StrategyByMmr strategy = StrategyByMmr.build(comparator, true, constraints, penalty);
+	    strategy.setNbCommitteeSplits(nbCommitteeSplits);
 	    strategy.setRandom(random);
 	    return strategy;
-	}, json, String.format("Limited (×%s) %s%s", penalty, comparator.toString(), constraintsDescription));
+	}, json, String.format("Limited (×%s) %s%s%s", penalty, comparator.toString(), constraintsDescription,
+		nbCommitteeSplits == 0 ? "" : ", " + nbCommitteeSplits + " committee splits"));
     }
 
     public static StrategyFactory elitist() {
 	final PrintableJsonObject json = JsonbUtils.toJsonObject(ImmutableMap.of("family", StrategyType.ELITIST));
 
-	return new StrategyFactory(() -> {
+	/** The elitist strategy draws nothing at random: the seed is irrelevant. */
+	return new StrategyFactory(0l, random -> {
 	    final StrategyElitist strategy = StrategyElitist.newInstance();
 	    return strategy;
 	}, json, "Elitist");
@@ -176,8 +212,7 @@ public class StrategyFactory implements Supplier<Strategy> {
 	final PrintableJsonObject json = JsonbUtils.toJsonObject(ImmutableMap.of("family", StrategyType.RANDOM, "seed",
 		seed, "probabilityCommittee", probabilityCommittee, "toVoters", toVoters));
 
-	final Random random = new Random(seed);
-	return new StrategyFactory(() -> {
+	return new StrategyFactory(seed, random -> {
 	    final StrategyRandom strategy = toVoters ? StrategyRandom.onlyVoters(probabilityCommittee)
 		    : StrategyRandom.newInstance(probabilityCommittee);
 	    strategy.setRandom(random);
@@ -185,21 +220,88 @@ public class StrategyFactory implements Supplier<Strategy> {
 	}, json, "Random");
     }
 
-    private final Supplier<Strategy> supplier;
+    private final long seed;
+
+    /**
+     * Creates a strategy that draws from the given random source.
+     */
+    private final Function<Random, Strategy> maker;
+
+    /**
+     * Shared among the strategies returned by {@link #get()}.
+     */
+    private final Random sharedRandom;
+
+    private final boolean perRunStreams;
 
     private final String description;
 
     private JsonObject json;
 
-    private StrategyFactory(Supplier<Strategy> supplier, JsonObject json, String description) {
-	this.supplier = checkNotNull(supplier);
+    private StrategyFactory(long seed, Function<Random, Strategy> maker, JsonObject json, String description) {
+	this(seed, maker, json, description, false);
+    }
+
+    private StrategyFactory(long seed, Function<Random, Strategy> maker, JsonObject json, String description,
+	    boolean perRunStreams) {
+	this.seed = seed;
+	this.maker = checkNotNull(maker);
+	sharedRandom = new Random(seed);
 	this.json = checkNotNull(json);
 	this.description = checkNotNull(description);
+	this.perRunStreams = perRunStreams;
+    }
+
+    /**
+     * Returns a factory equal to this one, except that the strategies it returns
+     * through {@link #get(int)} each draw from their own random source, seeded by
+     * the seed of this factory and the run index. The runs of such a factory can
+     * thus be reproduced exactly whatever the thread or the process that executes
+     * them, and in whatever order, provided every strategy of a run is obtained
+     * through {@link #get(int)} (see
+     * {@link SpeculativeStrategy#given(StrategyFactory, int, java.util.concurrent.ExecutorService)}
+     * and {@link io.github.oliviercailloux.minimax.experiment.Runner}). The JSON
+     * description of the returned factory records this.
+     */
+    public StrategyFactory perRunStreams() {
+	if (perRunStreams) {
+	    return this;
+	}
+	final JsonObject perRunJson = Json.createObjectBuilder(json).add("perRunStreams", true).build();
+	return new StrategyFactory(seed, maker, perRunJson, description, true);
+    }
+
+    public boolean hasPerRunStreams() {
+	return perRunStreams;
     }
 
+    /**
+     * Returns a strategy that draws from the random source that this factory
+     * shares among all the strategies it returns through this method. Thus,
+     * with a seeded factory, the sequence of strategies obtained from it is
+     * reproducible only if they are used sequentially in the same order.
+     */
     @Override
     public Strategy get() {
-	final Strategy instance = supplier.get();
+	final Strategy instance = maker.apply(sharedRandom);
+	checkState(instance != null);
+	return instance;
+    }
+
+    /**
+     * Returns a strategy for the run of the given index. With per-run streams,
+     * the strategy draws from its own random source, seeded from the seed of
+     * this factory and the run index; otherwise, this is equivalent to
+     * {@link #get()}.
+     *
+     * @param runIndex non-negative.
+     */
+    public Strategy get(int runIndex) {
+	checkArgument(runIndex >= 0);
+	if (!perRunStreams) {
+	    return get();
+	}
+	final Strategy instance = maker.apply(new Random(getRunSeed(seed, runIndex)));
 	checkState(instance != null);
 	return instance;
     }
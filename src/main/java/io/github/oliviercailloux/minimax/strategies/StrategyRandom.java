@@ -52,6 +52,16 @@ public class StrategyRandom implements Strategy {
 	helper.setRandom(random);
     }
 
+    @Override
+    public StrategyState getState() {
+	return StrategyState.given(helper.getRandom(), 0);
+    }
+
+    @Override
+    public void setState(StrategyState state) {
+	helper.setRandom(state.getRandom());
+    }
+
     @Override
     public void setKnowledge(UpdateablePreferenceKnowledge knowledge) {
 	helper.setKnowledge(knowledge);
@@ -0,0 +1,105 @@
+package io.github.oliviercailloux.minimax.strategies;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.VerifyException;
+
+/**
+ * The part of the state of a strategy that is not derived from its knowledge:
+ * the state of its random source and the number of questions it has asked,
+ * which drives its questioning constraints, if any.
+ *
+ * Immutable: the random source is captured in serialized form, so that each
+ * call to {@link #getRandom()} returns a new source that continues from the
+ * captured state.
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class StrategyState {
+    /**
+     * @param random  the current random source of the strategy; its state is
+     *                captured now.
+     * @param nbAsked at least zero.
+     */
+    public static StrategyState given(Random random, int nbAsked) {
+	final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+	    out.writeObject(random);
+	} catch (IOException e) {
+	    throw new UncheckedIOException(e);
+	}
+	return new StrategyState(bytes.toByteArray(), nbAsked);
+    }
+
+    /**
+     * @param randomState as returned by {@link #getRandomState()}.
+     */
+    public static StrategyState fromBytes(byte[] randomState, int nbAsked) {
+	return new StrategyState(randomState.clone(), nbAsked);
+    }
+
+    private final byte[] randomState;
+
+    private final int nbAsked;
+
+    private StrategyState(byte[] randomState, int nbAsked) {
+	checkArgument(nbAsked >= 0);
+	this.randomState = randomState;
+	this.nbAsked = nbAsked;
+    }
+
+    /**
+     * @return a new random source, in the state that was captured.
+     */
+    public Random getRandom() {
+	try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(randomState))) {
+	    return (Random) in.readObject();
+	} catch (IOException e) {
+	    throw new UncheckedIOException(e);
+	} catch (ClassNotFoundException e) {
+	    throw new VerifyException(e);
+	}
+    }
+
+    /**
+     * @return the serialized form of the random source.
+     */
+    public byte[] getRandomState() {
+	return randomState.clone();
+    }
+
+    public int getNbAsked() {
+	return nbAsked;
+    }
+
+    @Override
+    public boolean equals(Object o2) {
+	if (!(o2 instanceof StrategyState)) {
+	    return false;
+	}
+	final StrategyState s2 = (StrategyState) o2;
+	return Arrays.equals(randomState, s2.randomState) && nbAsked == s2.nbAsked;
+    }
+
+    @Override
+    public int hashCode() {
+	return Objects.hash(Arrays.hashCode(randomState), nbAsked);
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Nb asked", nbAsked).toString();
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.oliviercailloux.minimax.utils;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Counts some costly events, so that callers may find out how much work a given
+ * computation required by reading the counts before and after it.
+ *
+ * <p>
+ * Each thread records its events into the counters that are bound to it: its
+ * own counters, unless others have been bound to it using {@link #bind()}. A
+ * computation that hands work over to other threads should bind its counters
+ * in these threads (obtained using {@link #current()}), so that that work is
+ * counted as well. Counters may be incremented concurrently by any number of
+ * threads.
+ * </p>
+ *
+ * <p>
+ * Low level code that should not depend on this class may count its events
+ * using a listener that the code that uses it injects, typically
+ * {@code () -> Counters.increment(Counter.X)}.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class Counters {
+    public static enum Counter {
+	/**
+	 * A linear program has been solved.
+	 */
+	LP_SOLVE,
+	/**
+	 * The transitive closure of the graph of a voter has been (re)computed.
+	 */
+	TRANSITIVE_CLOSURE,
+	/**
+	 * A pairwise max regret object has been allocated.
+	 */
+	PMR
+    }
+
+    /**
+     * Restores the counters that were bound to the thread when this scope was
+     * opened.
+     */
+    public static class Scope implements AutoCloseable {
+	private final Counters previous;
+
+	private Scope(Counters previous) {
+	    this.previous = requireNonNull(previous);
+	}
+
+	@Override
+	public void close() {
+	    CURRENT.set(previous);
+	}
+    }
+
+    private static final ThreadLocal<Counters> CURRENT = ThreadLocal.withInitial(Counters::create);
+
+    public static Counters create() {
+	return new Counters();
+    }
+
+    /**
+     * @return the counters bound to the calling thread.
+     */
+    public static Counters current() {
+	return CURRENT.get();
+    }
+
+    /**
+     * Increments the given counter of the counters bound to the calling thread.
+     */
+    public static void increment(Counter counter) {
+	CURRENT.get().add(counter);
+    }
+
+    private final AtomicLongArray counts;
+
+    private Counters() {
+	counts = new AtomicLongArray(Counter.values().length);
+    }
+
+    /**
+     * Binds these counters to the calling thread, until the returned scope is
+     * closed.
+     */
+    public Scope bind() {
+	final Scope scope = new Scope(CURRENT.get());
+	CURRENT.set(this);
+	return scope;
+    }
+
+    public void add(Counter counter) {
+	counts.incrementAndGet(counter.ordinal());
+    }
+
+    /**
+     * Adds the counts of the given counters to these ones, for example to
+     * account for work done speculatively, once it turns out to be used.
+     */
+    public void addAll(Counters other) {
+	for (int i = 0; i < counts.length(); ++i) {
+	    counts.addAndGet(i, other.counts.get(i));
+	}
+    }
+
+    /**
+     * @return the number of events of the given kind recorded into these counters
+     *         since they were created.
+     */
+    public long get(Counter counter) {
+	return counts.get(counter.ordinal());
+    }
+
+    /**
+     * @return a copy of the counts, indexed by the ordinals of the counters.
+     */
+    public long[] getAll() {
+	final long[] copy = new long[counts.length()];
+	for (int i = 0; i < copy.length; ++i) {
+	    copy[i] = counts.get(i);
+	}
+	return copy;
+    }
+
+    @Override
+    public String toString() {
+	final MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper(this);
+	for (Counter counter : Counter.values()) {
+	    helper.add(counter.toString(), get(counter));
+	}
+	return helper.toString();
+    }
+}
@@ -4,22 +4,25 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.math.DoubleMath;
 
 import io.github.oliviercailloux.j_voting.Alternative;
@@ -32,6 +35,12 @@ public class Generator {
     @SuppressWarnings("unused")
     private static final Logger LOGGER = LoggerFactory.getLogger(Generator.class);
 
+    /**
+     * The number of voters whose preferences are generated from a given random
+     * stream in bulk generation.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
     public static PSRWeights genWeightsEquallySpread(int nbAlternatives) {
 	final Supplier<Double> differenceSupplier = () -> 1d;
 
@@ -69,16 +78,35 @@ public class Generator {
 
     public static PSRWeights genWeightsWithUniformDistribution(int nbAlternatives) {
 	final Random r = new Random();
-	final Supplier<Double> differenceSupplier = () -> r.nextDouble();
+	return genWeightsWithUniformDistribution(nbAlternatives, r::nextDouble);
+    }
+
+    public static PSRWeights genWeightsWithUniformDistribution(int nbAlternatives, long seed) {
+	final SplittableRandom r = new SplittableRandom(seed);
+	return genWeightsWithUniformDistribution(nbAlternatives, r::nextDouble);
+    }
+
+    private static PSRWeights genWeightsWithUniformDistribution(int nbAlternatives, DoubleSupplier uniform) {
+	final Supplier<Double> differenceSupplier = () -> uniform.getAsDouble();
 
 	return genWeights(nbAlternatives, differenceSupplier);
     }
 
     public static PSRWeights genWeightsWithUnbalancedDistribution(int nbAlternatives) {
 	final Random r = new Random();
+	return genWeightsWithUnbalancedDistribution(nbAlternatives, r::nextDouble);
+    }
+
+    public static PSRWeights genWeightsWithUnbalancedDistribution(int nbAlternatives, long seed) {
+	final SplittableRandom r = new SplittableRandom(seed);
+	return genWeightsWithUnbalancedDistribution(nbAlternatives, r::nextDouble);
+    }
+
+    private static PSRWeights genWeightsWithUnbalancedDistribution(int nbAlternatives, DoubleSupplier uniform) {
 	final double p = (1 / (double) (nbAlternatives - 1));
-	final Supplier<Double> differenceSupplier = () -> r.nextDouble() < p ? 0.9 + (r.nextDouble() * 0.1)
-		: (r.nextDouble() * 0.1);
+	final Supplier<Double> differenceSupplier = () -> uniform.getAsDouble() < p
+		? 0.9 + (uniform.getAsDouble() * 0.1)
+		: (uniform.getAsDouble() * 0.1);
 
 	return genWeights(nbAlternatives, differenceSupplier);
     }
@@ -130,28 +158,118 @@ public class Generator {
     }
 
     public static Map<Voter, VoterStrictPreference> genProfile(int nbAlternatives, int nbVoters) {
+	return genProfile(nbAlternatives, nbVoters, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Returns the same profile for the same seed, whatever the parallelism
+     * available.
+     *
+     * @return a profile of impartial culture, with alternatives 1 to m and voters
+     *         1 to n, ordered by id.
+     */
+    public static ImmutableMap<Voter, VoterStrictPreference> genProfile(int nbAlternatives, int nbVoters,
+	    long seed) {
+	return toProfile(genPermutations(nbAlternatives, nbVoters, seed), nbAlternatives, nbVoters);
+    }
+
+    /**
+     * Generates uniformly random linear orders, one per voter, using a
+     * Fisher-Yates shuffle for each voter. The voters are split into chunks of
+     * fixed size, each with its own random stream split from the seed in
+     * sequence, and the chunks are filled in parallel, so that the result depends
+     * only on the seed.
+     *
+     * @return a buffer of size m × n where the linear order of voter i (starting
+     *         from zero) is stored, from best to worst, at positions i × m to (i +
+     *         1) × m − 1, as ids of alternatives from 1 to m.
+     */
+    public static int[] genPermutations(int nbAlternatives, int nbVoters, long seed) {
 	checkArgument(nbVoters >= 1);
 	checkArgument(nbAlternatives >= 1);
-	Map<Voter, VoterStrictPreference> profile = new HashMap<>();
+	final int[] buffer = new int[Math.multiplyExact(nbAlternatives, nbVoters)];
+	fillInParallel(buffer, nbAlternatives, nbVoters, new SplittableRandom(seed),
+		(random, from, to) -> fillPermutations(buffer, nbAlternatives, from, to, random));
+	return buffer;
+    }
+
+    static interface ChunkFiller {
+	/**
+	 * Fills the rows of the voters from (inclusive) to (exclusive).
+	 */
+	void fill(SplittableRandom random, int from, int to);
+    }
 
-	List<Alternative> availableRanks = new LinkedList<>();
-	for (int i = 1; i <= nbAlternatives; i++) {
-	    availableRanks.add(Alternative.withId(i));
+    /**
+     * Splits the rows into chunks of {@link #CHUNK_SIZE} voters, gives each chunk a
+     * random stream split in sequence from the given one, and fills the chunks in
+     * parallel.
+     */
+    static void fillInParallel(int[] buffer, int nbAlternatives, int nbVoters, SplittableRandom random,
+	    ChunkFiller filler) {
+	checkArgument(buffer.length == nbAlternatives * nbVoters);
+	final int nbChunks = (nbVoters + CHUNK_SIZE - 1) / CHUNK_SIZE;
+	final SplittableRandom[] randoms = new SplittableRandom[nbChunks];
+	for (int c = 0; c < nbChunks; ++c) {
+	    randoms[c] = random.split();
 	}
+	IntStream.range(0, nbChunks).parallel()
+		.forEach(c -> filler.fill(randoms[c], c * CHUNK_SIZE, Math.min((c + 1) * CHUNK_SIZE, nbVoters)));
+    }
 
-	for (int i = 1; i <= nbVoters; ++i) {
-	    Voter v = Voter.withId(i);
-	    List<Alternative> linearOrder = Lists.newArrayList(availableRanks);
-	    Collections.shuffle(linearOrder);
-	    VoterStrictPreference pref = VoterStrictPreference.given(v, linearOrder);
-	    profile.put(v, pref);
+    static void fillPermutations(int[] buffer, int nbAlternatives, int fromVoter, int toVoter,
+	    SplittableRandom random) {
+	for (int v = fromVoter; v < toVoter; ++v) {
+	    final int offset = v * nbAlternatives;
+	    for (int i = 0; i < nbAlternatives; ++i) {
+		buffer[offset + i] = i + 1;
+	    }
+	    for (int i = nbAlternatives - 1; i >= 1; --i) {
+		final int j = random.nextInt(i + 1);
+		final int tmp = buffer[offset + i];
+		buffer[offset + i] = buffer[offset + j];
+		buffer[offset + j] = tmp;
+	    }
 	}
+    }
 
-	verify(profile.size() == nbVoters);
-	return profile;
+    /**
+     * @param linearOrders as returned by {@link #genPermutations(int, int, long)}.
+     * @return the profile of voters 1 to n, ordered by id.
+     */
+    public static ImmutableMap<Voter, VoterStrictPreference> toProfile(int[] linearOrders, int nbAlternatives,
+	    int nbVoters) {
+	checkArgument(linearOrders.length == nbAlternatives * nbVoters);
+	final Alternative[] alternatives = new Alternative[nbAlternatives + 1];
+	for (int i = 1; i <= nbAlternatives; ++i) {
+	    alternatives[i] = Alternative.withId(i);
+	}
+	final ImmutableMap.Builder<Voter, VoterStrictPreference> profile = ImmutableMap
+		.builderWithExpectedSize(nbVoters);
+	for (int v = 0; v < nbVoters; ++v) {
+	    final Alternative[] linearOrder = new Alternative[nbAlternatives];
+	    for (int i = 0; i < nbAlternatives; ++i) {
+		linearOrder[i] = alternatives[linearOrders[v * nbAlternatives + i]];
+	    }
+	    final Voter voter = Voter.withId(v + 1);
+	    profile.put(voter, VoterStrictPreference.given(voter, Arrays.asList(linearOrder)));
+	}
+	return profile.build();
     }
 
     public static Oracle generateOracle(int nbAlternatives, int nbVoters) {
 	return Oracle.build(genProfile(nbAlternatives, nbVoters), genWeightsWithUnbalancedDistribution(nbAlternatives));
     }
+
+    /**
+     * @return an oracle that depends only on the given parameters, with weights
+     *         from {@link #genWeightsWithUnbalancedDistribution(int, long)}.
+     */
+    public static Oracle generateOracle(int nbAlternatives, int nbVoters, long seed) {
+	final SplittableRandom random = new SplittableRandom(seed);
+	final long profileSeed = random.nextLong();
+	final long weightsSeed = random.nextLong();
+	return Oracle.build(genProfile(nbAlternatives, nbVoters, profileSeed),
+		genWeightsWithUnbalancedDistribution(nbAlternatives, weightsSeed));
+    }
 }
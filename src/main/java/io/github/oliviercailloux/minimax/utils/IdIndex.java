@@ -0,0 +1,76 @@
+package io.github.oliviercailloux.minimax.utils;
+
+import java.util.Arrays;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Maps integer ids to their positions in a sequence of distinct ids, in
+ * constant time, through an array indexed by id when the ids are non-negative
+ * and dense enough (at most four times their number, plus a constant),
+ * otherwise through a map. Shared by the indices of alternatives and voters and
+ * by the ranks of strict preferences.
+ *
+ * <p>
+ * Immutable.
+ * </p>
+ */
+public class IdIndex {
+    private static final int DENSE_FACTOR = 4;
+
+    private static final int DENSE_SLACK = 16;
+
+    /**
+     * @param ids distinct ids, the one of position i at index i.
+     */
+    public static IdIndex given(int[] ids) {
+	return new IdIndex(ids);
+    }
+
+    /**
+     * At index id, the position of that id plus one, or zero if absent;
+     * {@code null} iff the ids are too sparse, in which case {@link #indexOfId}
+     * is used.
+     */
+    private final int[] indexPlusOneOfId;
+
+    /**
+     * Empty iff {@link #indexPlusOneOfId} is used.
+     */
+    private final ImmutableMap<Integer, Integer> indexOfId;
+
+    private IdIndex(int[] ids) {
+	final int minId = Arrays.stream(ids).min().orElse(0);
+	final int maxId = Arrays.stream(ids).max().orElse(0);
+	if (minId >= 0 && maxId <= DENSE_FACTOR * ids.length + DENSE_SLACK) {
+	    indexPlusOneOfId = new int[maxId + 1];
+	    for (int i = 0; i < ids.length; ++i) {
+		indexPlusOneOfId[ids[i]] = i + 1;
+	    }
+	    indexOfId = ImmutableMap.of();
+	} else {
+	    indexPlusOneOfId = null;
+	    final ImmutableMap.Builder<Integer, Integer> builder = ImmutableMap.builderWithExpectedSize(ids.length);
+	    for (int i = 0; i < ids.length; ++i) {
+		builder.put(ids[i], i);
+	    }
+	    indexOfId = builder.build();
+	}
+    }
+
+    /**
+     * @return the position of the id, or −1 if it is not indexed.
+     */
+    public int getIndex(int id) {
+	if (indexPlusOneOfId != null) {
+	    return (id >= 0 && id < indexPlusOneOfId.length) ? indexPlusOneOfId[id] - 1 : -1;
+	}
+	return indexOfId.getOrDefault(id, -1);
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Dense", indexPlusOneOfId != null).toString();
+    }
+}
@@ -0,0 +1,246 @@
+package io.github.oliviercailloux.minimax.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Doubles;
+
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.j_voting.VoterStrictPreference;
+
+/**
+ * A probabilistic model of profiles of linear orders over the alternatives 1 to
+ * m. All models generate into a flat buffer, in the layout of
+ * {@link Generator#genPermutations(int, int, long)}, and depend only on the
+ * seed, whatever the parallelism available. The reference order (for Mallows)
+ * and the axis (for single-peaked profiles) are the order of the ids.
+ *
+ * <p>
+ * Immutable.
+ * </p>
+ */
+public class ProfileModel {
+    @SuppressWarnings("unused")
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProfileModel.class);
+
+    private static interface Filler {
+	void fill(int[] buffer, int nbAlternatives, int nbVoters, SplittableRandom random);
+    }
+
+    /**
+     * Uniformly random linear orders, as {@link Generator#genProfile(int, int)}.
+     */
+    public static ProfileModel impartialCulture() {
+	return new ProfileModel((buffer, m, n, random) -> Generator.fillInParallel(buffer, m, n, random,
+		(r, from, to) -> Generator.fillPermutations(buffer, m, from, to, r)), "Impartial culture");
+    }
+
+    /**
+     * Linear orders drawn with a probability proportional to φ^d, where d is the
+     * Kendall tau distance to the reference order, using the repeated insertion
+     * model: the alternative i is inserted at position j ∈ [1, i] among the first
+     * i − 1 ones with a probability proportional to φ^(i − j).
+     *
+     * @param phi the dispersion, in [0, 1]: zero yields the reference order only,
+     *            one yields the impartial culture.
+     */
+    public static ProfileModel mallows(double phi) {
+	checkArgument(0d <= phi && phi <= 1d);
+	return new ProfileModel((buffer, m, n, random) -> {
+	    final double[][] cumulative = getInsertionProbabilities(m, phi);
+	    Generator.fillInParallel(buffer, m, n, random,
+		    (r, from, to) -> fillMallows(buffer, m, from, to, cumulative, r));
+	}, "Mallows φ = " + phi);
+    }
+
+    /**
+     * Linear orders where the best alternative is drawn with a probability
+     * proportional to its weight, then the best one among the remaining ones,
+     * and so on. Drawn by sorting independent exponential keys, the key of each
+     * alternative having its weight as rate.
+     *
+     * @param weights the weight of the alternative i at index i − 1; all strictly
+     *                positive; the model generates profiles for that number of
+     *                alternatives only.
+     */
+    public static ProfileModel plackettLuce(List<Double> weights) {
+	final double[] w = Doubles.toArray(weights);
+	checkArgument(w.length >= 1);
+	for (double weight : w) {
+	    checkArgument(weight > 0d);
+	}
+	return new ProfileModel((buffer, m, n, random) -> {
+	    checkArgument(m == w.length);
+	    Generator.fillInParallel(buffer, m, n, random,
+		    (r, from, to) -> fillPlackettLuce(buffer, w, from, to, r));
+	}, "Plackett-Luce " + ImmutableList.copyOf(weights));
+    }
+
+    /**
+     * Linear orders drawn uniformly among those that are single-peaked with
+     * respect to the axis 1 to m, as described by Walsh: the worst alternative is
+     * one of the two extremities of the axis, each with probability one half;
+     * the next worse one is one of the two extremities of what remains, and so
+     * on.
+     */
+    public static ProfileModel singlePeaked() {
+	return new ProfileModel((buffer, m, n, random) -> Generator.fillInParallel(buffer, m, n, random,
+		(r, from, to) -> fillSinglePeaked(buffer, m, from, to, r)), "Single-peaked");
+    }
+
+    /**
+     * The Pólya-Eggenberger urn model: an urn initially contains each of the m!
+     * linear orders once; each voter draws an order from the urn, then α × m!
+     * copies of that order are put back in the urn. Equivalently, the voter i
+     * (starting from zero) draws a uniformly random order with probability 1 / (1
+     * + α × i), and copies the order of a uniformly chosen previous voter
+     * otherwise.
+     *
+     * <p>
+     * The choice between drawing and copying is sequential by nature; the random
+     * orders are generated in bulk beforehand, then the copies are made in a
+     * single pass.
+     * </p>
+     *
+     * @param alpha the contagion, non-negative: zero yields the impartial culture.
+     */
+    public static ProfileModel urn(double alpha) {
+	checkArgument(alpha >= 0d);
+	return new ProfileModel((buffer, m, n, random) -> {
+	    final SplittableRandom copyRandom = random.split();
+	    Generator.fillInParallel(buffer, m, n, random,
+		    (r, from, to) -> Generator.fillPermutations(buffer, m, from, to, r));
+	    for (int v = 1; v < n; ++v) {
+		if (copyRandom.nextDouble() * (1d + alpha * v) >= 1d) {
+		    final int source = copyRandom.nextInt(v);
+		    System.arraycopy(buffer, source * m, buffer, v * m, m);
+		}
+	    }
+	}, "Urn α = " + alpha);
+    }
+
+    /**
+     * @return at index i − 1, the cumulative probabilities of inserting the
+     *         alternative i at the positions 1 to i.
+     */
+    private static double[][] getInsertionProbabilities(int nbAlternatives, double phi) {
+	final double[][] cumulative = new double[nbAlternatives][];
+	for (int i = 1; i <= nbAlternatives; ++i) {
+	    final double[] probabilities = new double[i];
+	    double sum = 0d;
+	    for (int j = 1; j <= i; ++j) {
+		sum += Math.pow(phi, i - j);
+		probabilities[j - 1] = sum;
+	    }
+	    for (int j = 0; j < i; ++j) {
+		probabilities[j] /= sum;
+	    }
+	    cumulative[i - 1] = probabilities;
+	}
+	return cumulative;
+    }
+
+    private static void fillMallows(int[] buffer, int nbAlternatives, int fromVoter, int toVoter,
+	    double[][] cumulative, SplittableRandom random) {
+	for (int v = fromVoter; v < toVoter; ++v) {
+	    final int offset = v * nbAlternatives;
+	    for (int i = 1; i <= nbAlternatives; ++i) {
+		final double[] probabilities = cumulative[i - 1];
+		final double u = random.nextDouble();
+		int position = 0;
+		while (position < i - 1 && u >= probabilities[position]) {
+		    ++position;
+		}
+		System.arraycopy(buffer, offset + position, buffer, offset + position + 1, i - 1 - position);
+		buffer[offset + position] = i;
+	    }
+	}
+    }
+
+    private static void fillPlackettLuce(int[] buffer, double[] weights, int fromVoter, int toVoter,
+	    SplittableRandom random) {
+	final int m = weights.length;
+	final double[] keys = new double[m];
+	for (int v = fromVoter; v < toVoter; ++v) {
+	    final int offset = v * m;
+	    /** Insertion sort by increasing key: m is small. */
+	    for (int a = 0; a < m; ++a) {
+		final double key = -Math.log(1d - random.nextDouble()) / weights[a];
+		int position = a;
+		while (position > 0 && keys[position - 1] > key) {
+		    keys[position] = keys[position - 1];
+		    buffer[offset + position] = buffer[offset + position - 1];
+		    --position;
+		}
+		keys[position] = key;
+		buffer[offset + position] = a + 1;
+	    }
+	}
+    }
+
+    private static void fillSinglePeaked(int[] buffer, int nbAlternatives, int fromVoter, int toVoter,
+	    SplittableRandom random) {
+	for (int v = fromVoter; v < toVoter; ++v) {
+	    final int offset = v * nbAlternatives;
+	    int left = 1;
+	    int right = nbAlternatives;
+	    for (int position = nbAlternatives - 1; position >= 1; --position) {
+		if (random.nextBoolean()) {
+		    buffer[offset + position] = left;
+		    ++left;
+		} else {
+		    buffer[offset + position] = right;
+		    --right;
+		}
+	    }
+	    buffer[offset] = left;
+	}
+    }
+
+    private final Filler filler;
+
+    private final String description;
+
+    private ProfileModel(Filler filler, String description) {
+	this.filler = requireNonNull(filler);
+	this.description = requireNonNull(description);
+    }
+
+    /**
+     * @return a buffer in the layout of
+     *         {@link Generator#genPermutations(int, int, long)}.
+     */
+    public int[] genLinearOrders(int nbAlternatives, int nbVoters, long seed) {
+	checkArgument(nbVoters >= 1);
+	checkArgument(nbAlternatives >= 1);
+	final int[] buffer = new int[Math.multiplyExact(nbAlternatives, nbVoters)];
+	filler.fill(buffer, nbAlternatives, nbVoters, new SplittableRandom(seed));
+	return buffer;
+    }
+
+    /**
+     * @return a profile with alternatives 1 to m and voters 1 to n, ordered by
+     *         id.
+     */
+    public ImmutableMap<Voter, VoterStrictPreference> genProfile(int nbAlternatives, int nbVoters, long seed) {
+	return Generator.toProfile(genLinearOrders(nbAlternatives, nbVoters, seed), nbAlternatives, nbVoters);
+    }
+
+    public String getDescription() {
+	return description;
+    }
+
+    @Override
+    public String toString() {
+	return MoreObjects.toStringHelper(this).add("Description", description).toString();
+    }
+}
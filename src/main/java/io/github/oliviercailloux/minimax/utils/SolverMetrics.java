@@ -0,0 +1,220 @@
+package io.github.oliviercailloux.minimax.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Counts the calls to the LP solver and records their latencies, by caller, in
+ * histograms with logarithmic buckets, each power of two being split into
+ * {@link Histogram#SUB_BUCKETS} linear sub-buckets (as in HDR histograms), thus
+ * with a relative error of at most 12.5%.
+ *
+ * <p>
+ * Recording is lock-free and may be done concurrently by any number of threads.
+ * The caller is attributed per thread, using {@link #as(Caller)}; calls done
+ * outside of any such scope are attributed to {@link Caller#OTHER}.
+ * </p>
+ *
+ * @author Olivier Cailloux
+ *
+ */
+public class SolverMetrics {
+    public static enum Caller {
+	PMR, WEIGHT_RANGE, MIN_TAU_W, SAMPLING, OTHER
+    }
+
+    /**
+     * Restores the caller that was current when this scope was opened.
+     */
+    public static class Scope implements AutoCloseable {
+	private final Caller previous;
+
+	private Scope(Caller previous) {
+	    this.previous = requireNonNull(previous);
+	}
+
+	@Override
+	public void close() {
+	    CURRENT_CALLER.set(previous);
+	}
+    }
+
+    /**
+     * Latencies in nanoseconds. Bucket i, for i < {@link #SUB_BUCKETS}, contains
+     * exactly the value i; beyond, the buckets double in width every
+     * {@link #SUB_BUCKETS} buckets.
+     */
+    public static class Histogram {
+	public static final int SUB_BUCKETS = 8;
+
+	private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+	private static final int NB_BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+	static int getBucket(long value) {
+	    checkArgument(value >= 0l);
+	    if (value < SUB_BUCKETS) {
+		return (int) value;
+	    }
+	    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+	    final int shift = exponent - SUB_BITS;
+	    final int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+	    return (shift + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * @return the smallest value that falls into the given bucket.
+	 */
+	static long getLowerBound(int bucket) {
+	    if (bucket < SUB_BUCKETS) {
+		return bucket;
+	    }
+	    final int shift = bucket / SUB_BUCKETS - 1;
+	    final int sub = bucket % SUB_BUCKETS;
+	    return ((long) (SUB_BUCKETS + sub)) << shift;
+	}
+
+	private final AtomicLongArray counts = new AtomicLongArray(NB_BUCKETS);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder totalNs = new LongAdder();
+
+	private Histogram() {
+	}
+
+	void record(long valueNs) {
+	    final long value = Math.max(valueNs, 0l);
+	    counts.incrementAndGet(getBucket(value));
+	    count.increment();
+	    totalNs.add(value);
+	}
+
+	public long getCount() {
+	    return count.sum();
+	}
+
+	public long getTotalNs() {
+	    return totalNs.sum();
+	}
+
+	/**
+	 * Returns an approximation of the given quantile: the lower bound of the
+	 * bucket that contains it. The result may be slightly inconsistent if values
+	 * are being recorded concurrently.
+	 *
+	 * @param quantile in [0, 1].
+	 * @return zero if no value has been recorded.
+	 */
+	public long getQuantileNs(double quantile) {
+	    checkArgument(quantile >= 0d && quantile <= 1d);
+	    final long[] snapshot = new long[NB_BUCKETS];
+	    long total = 0l;
+	    for (int i = 0; i < NB_BUCKETS; ++i) {
+		snapshot[i] = counts.get(i);
+		total += snapshot[i];
+	    }
+	    if (total == 0l) {
+		return 0l;
+	    }
+	    final long rank = Math.max(1l, (long) Math.ceil(quantile * total));
+	    long seen = 0l;
+	    for (int i = 0; i < NB_BUCKETS; ++i) {
+		seen += snapshot[i];
+		if (seen >= rank) {
+		    return getLowerBound(i);
+		}
+	    }
+	    return getLowerBound(NB_BUCKETS - 1);
+	}
+
+	private void reset() {
+	    for (int i = 0; i < NB_BUCKETS; ++i) {
+		counts.set(i, 0l);
+	    }
+	    count.reset();
+	    totalNs.reset();
+	}
+
+	@Override
+	public String toString() {
+	    return MoreObjects.toStringHelper(this).add("Count", getCount()).add("Total ns", getTotalNs())
+		    .add("p50 ns", getQuantileNs(0.5d)).add("p90 ns", getQuantileNs(0.9d))
+		    .add("p99 ns", getQuantileNs(0.99d)).add("Max ns", getQuantileNs(1d)).toString();
+	}
+    }
+
+    private static final ThreadLocal<Caller> CURRENT_CALLER = ThreadLocal.withInitial(() -> Caller.OTHER);
+
+    private static final ImmutableMap<Caller, Histogram> HISTOGRAMS = getNewHistograms();
+
+    private static ImmutableMap<Caller, Histogram> getNewHistograms() {
+	final Map<Caller, Histogram> histograms = new EnumMap<>(Caller.class);
+	for (Caller caller : Caller.values()) {
+	    histograms.put(caller, new Histogram());
+	}
+	return ImmutableMap.copyOf(histograms);
+    }
+
+    /**
+     * Attributes the solver calls done by the current thread to the given caller,
+     * until the returned scope is closed.
+     */
+    public static Scope as(Caller caller) {
+	final Scope scope = new Scope(CURRENT_CALLER.get());
+	CURRENT_CALLER.set(requireNonNull(caller));
+	return scope;
+    }
+
+    /**
+     * Records a solver call that lasted the given time, attributing it to the
+     * current caller of this thread.
+     */
+    public static void record(long durationNs) {
+	HISTOGRAMS.get(CURRENT_CALLER.get()).record(durationNs);
+    }
+
+    public static long getCount(Caller caller) {
+	return HISTOGRAMS.get(caller).getCount();
+    }
+
+    public static Histogram getHistogram(Caller caller) {
+	return HISTOGRAMS.get(caller);
+    }
+
+    /**
+     * Resets all counts, for example between two experiments. Values recorded
+     * concurrently with a reset may be partially lost.
+     */
+    public static void reset() {
+	for (Histogram histogram : HISTOGRAMS.values()) {
+	    histogram.reset();
+	}
+    }
+
+    /**
+     * @return a multi-line summary of the calls of each caller that has called the
+     *         solver at least once.
+     */
+    public static String asString() {
+	final StringBuilder sb = new StringBuilder();
+	for (Caller caller : Caller.values()) {
+	    final Histogram histogram = HISTOGRAMS.get(caller);
+	    if (histogram.getCount() >= 1l) {
+		sb.append(caller).append(": ").append(histogram).append('\n');
+	    }
+	}
+	return sb.toString();
+    }
+
+    private SolverMetrics() {
+    }
+}
@@ -9,25 +9,45 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.minimax.utils.IdIndex;
 
 /**
  * This class is immutable Contains a list of Alternatives sorted by preferences
  * Two alternatives can't be equally ranked You can't store the same alternative
  * several times in the list Every alternative is an integer and corresponds to
  * a voting choice
+ *
+ * <p>
+ * The rank of an alternative and the alternative at a rank are obtained in
+ * constant time, without allocating or logging, as these queries are used in
+ * the hot loops of the oracles and of the regret computations.
+ * </p>
  */
 public class StrictPreference extends Preference {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StrictPreference.class.getName());
 
+    /**
+     * The alternative at rank r at index r − 1.
+     */
+    private final ImmutableList<Alternative> atRank;
+
+    /**
+     * Gives the rank minus one of the alternatives, by id.
+     */
+    private final IdIndex indexOfAlternativeId;
+
     /**
      * @param preferences a list of alternatives.
      */
     public StrictPreference(List<Alternative> preferences) {
 	super(listAlternativeToListSetAlternative(preferences));
 	LOGGER.debug("StrictPreference constructor");
+	atRank = ImmutableList.copyOf(preferences);
+	indexOfAlternativeId = IdIndex.given(atRank.stream().mapToInt(Alternative::getId).toArray());
     }
 
     @Override
@@ -46,9 +66,39 @@ public class StrictPreference extends Preference {
      * 
      * @return a list of the alternatives by order of preference
      */
-    public List<Alternative> getAlternatives() {
-	LOGGER.debug("getAlternatives :");
-	return listSetAlternativeToList(preference);
+    public ImmutableList<Alternative> getAlternatives() {
+	return atRank;
+    }
+
+    @Override
+    public int size() {
+	return atRank.size();
+    }
+
+    @Override
+    public boolean contains(Alternative alter) {
+	Preconditions.checkNotNull(alter);
+	return getRankOrZero(alter) != 0;
+    }
+
+    /**
+     *
+     * @param alter not <code>null</code>. If the alternative is not in the
+     *              preference, it throws an IllegalArgumentException.
+     * @return the rank of the alternative given in the Preference.
+     */
+    @Override
+    public int getAlternativeRank(Alternative alter) {
+	Preconditions.checkNotNull(alter);
+	final int rank = getRankOrZero(alter);
+	if (rank == 0) {
+	    throw new IllegalArgumentException("Alternative not in the set");
+	}
+	return rank;
+    }
+
+    private int getRankOrZero(Alternative alter) {
+	return indexOfAlternativeId.getIndex(alter.getId()) + 1;
     }
 
     /**
@@ -95,13 +145,11 @@ public class StrictPreference extends Preference {
      */
     @Override
     public Alternative getAlternative(Integer position) {
-	LOGGER.debug("getAlternative");
 	Preconditions.checkNotNull(position);
-	LOGGER.debug("position : {}", position);
-	if (position >= preference.size()) {
+	if (position >= atRank.size()) {
 	    throw new IndexOutOfBoundsException("This position doesn't exist in the Preference");
 	}
 
-	return preference.get(position).iterator().next();
+	return atRank.get(position);
     }
 }
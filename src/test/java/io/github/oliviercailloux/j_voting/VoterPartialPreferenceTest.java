@@ -34,6 +34,20 @@ class VoterPartialPreferenceTest {
 	testIt(p2);
     }
 
+    @Test
+    void testClosureListener() {
+	final VoterPartialPreference p = VoterPartialPreference.about(Voter.withId(1),
+		ImmutableSet.of(Alternative.withId(1), Alternative.withId(2), Alternative.withId(3)));
+	final int[] nbClosures = new int[1];
+	p.setClosureListener(() -> ++nbClosures[0]);
+	p.asTransitiveGraph();
+	p.asTransitiveGraph();
+	assertEquals(1, nbClosures[0]);
+	p.asGraph().putEdge(Alternative.withId(1), Alternative.withId(2));
+	p.asTransitiveGraph();
+	assertEquals(2, nbClosures[0]);
+    }
+
     @Test
     void testAddRemove() {
 	final Alternative a2 = Alternative.withId(2);
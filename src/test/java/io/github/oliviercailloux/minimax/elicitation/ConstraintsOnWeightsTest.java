@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Range;
 
 import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
@@ -49,4 +50,33 @@ public class ConstraintsOnWeightsTest {
 	final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(2);
 	assertEquals(2d, cow.maximize(SumTerms.of(cow.getTerm(2d, 1), cow.getTerm(3d, 2))));
     }
+
+    @Test
+    void testMaximizeAll() throws Exception {
+	final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(4);
+	cow.setConvexityConstraint();
+	final SumTerms w2 = SumTerms.of(cow.getTerm(1d, 2));
+	final SumTerms w3 = SumTerms.of(cow.getTerm(1d, 3));
+	/** 1 − w2 ≥ w2 − w3 ≥ w3 thus w2 ≤ 2/3 and w3 ≤ 1/3. */
+	final Optima optima = cow.maximizeAll(ImmutableList.of(w2, w3, w2));
+	assertEquals(3, optima.size());
+	assertEquals(2d / 3d, optima.getValue(0), 1E-4);
+	assertEquals(1d / 3d, optima.getValue(1), 1E-4);
+	assertEquals(optima.getValue(0), optima.getValue(2));
+	assertEquals(optima.getValue(0), optima.getWeights(0).getWeightAtRank(2), 1E-8);
+	assertEquals(optima.getWeights(0), optima.getWeights(2));
+    }
+
+    @Test
+    void testSnapshots() throws Exception {
+	final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(3);
+	cow.setConvexityConstraint();
+	final ImmutableConstraintsOnWeights before = cow.getSnapshot();
+	final ConstraintsOnWeights copy = ConstraintsOnWeights.copyOf(cow);
+	cow.addConstraint(1, ComparisonOperator.GE, 3d);
+	assertEquals(0.25d, cow.getWeightRange(2).upperEndpoint(), 1E-4);
+	assertEquals(0.5d, before.getWeightRange(2).upperEndpoint(), 1E-4);
+	assertEquals(0.5d, copy.getWeightRange(2).upperEndpoint(), 1E-4);
+	assertEquals(0.25d, before.with(1, ComparisonOperator.GE, 3d).getWeightRange(2).upperEndpoint(), 1E-4);
+    }
 }
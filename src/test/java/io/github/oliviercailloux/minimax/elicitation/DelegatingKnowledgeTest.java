@@ -7,11 +7,16 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashSet;
 
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.Range;
+
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Generator;
 import io.github.oliviercailloux.j_voting.VoterPartialPreference;
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
 import io.github.oliviercailloux.minimax.Basics;
 
 public class DelegatingKnowledgeTest {
@@ -48,4 +53,19 @@ public class DelegatingKnowledgeTest {
 	assertTrue(del.isProfileComplete());
 
     }
+
+    @Test
+    void testDelegateCommittee() throws Exception {
+	final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge.given(Generator.getAlternatives(3),
+		Generator.getVoters(4));
+	final PreferenceInformation p1 = PreferenceInformation.aboutCommittee(1, ComparisonOperator.GE,
+		new Aprational(new Apint(3)));
+	final DelegatingPreferenceKnowledge del = DelegatingPreferenceKnowledge.given(k, p1);
+
+	assertEquals(Range.closed(new Aprational(new Apint(3)), new Aprational(new Apint(4))), del.getLambdaRange(1));
+	assertEquals(Range.closed(new Aprational(new Apint(1)), new Aprational(new Apint(4))), k.getLambdaRange(1));
+	/** (w1 − w2) ≥ 3(w2 − w3) thus w2 ≤ 1/4. **/
+	assertEquals(0.25d, del.getConstraintsOnWeights().getWeightRange(2).upperEndpoint(), 1E-4);
+	assertEquals(0.5d, k.getConstraintsOnWeights().getWeightRange(2).upperEndpoint(), 1E-4);
+    }
 }
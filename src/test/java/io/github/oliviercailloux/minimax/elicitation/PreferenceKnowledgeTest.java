@@ -1,18 +1,28 @@
 package io.github.oliviercailloux.minimax.elicitation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.apfloat.Apint;
 import org.apfloat.Aprational;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
+import com.google.common.graph.EndpointPair;
 
+import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Generator;
+import io.github.oliviercailloux.j_voting.Voter;
 import io.github.oliviercailloux.j_voting.VoterPartialPreference;
+import io.github.oliviercailloux.j_voting.VoterStrictPreference;
 import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
 import io.github.oliviercailloux.minimax.Basics;
+import io.github.oliviercailloux.minimax.strategies.Helper;
 
 class PreferenceKnowledgeTest {
 
@@ -37,4 +47,160 @@ class PreferenceKnowledgeTest {
 	assertThrows(IllegalArgumentException.class, () -> k.addConstraint(1, ComparisonOperator.LE, ap1));
     }
 
+    @Test
+    void testWeightsBounds() throws Exception {
+	final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge.given(Generator.getAlternatives(3),
+		Generator.getVoters(4));
+	/** λ ∈ [1, 4] and w2 = 1/(1 + λ). */
+	assertEquals(0.2d, k.getWeightsBounds().getWeightRange(2).lowerEndpoint(), 1e-10);
+	assertEquals(0.5d, k.getWeightsBounds().getWeightRange(2).upperEndpoint(), 1e-10);
+	assertEquals(0.8d, k.getWeightsBounds().getDifferenceRange(1).upperEndpoint(), 1e-10);
+	k.addConstraint(1, ComparisonOperator.GE, new Apint(3));
+	assertEquals(0.25d, k.getWeightsBounds().getWeightRange(2).upperEndpoint(), 1e-10);
+	assertEquals(Range.closed(1d, 1d), k.getWeightsBounds().getWeightRange(1));
+	assertEquals(Range.closed(0d, 0d), k.getWeightsBounds().getWeightRange(3));
+    }
+
+    @Test
+    void testIndex() throws Exception {
+	final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge.given(Generator.getAlternatives(4),
+		Generator.getVoters(3));
+	final DenseIndex index = k.getIndex();
+	assertEquals(4, index.getNbAlternatives());
+	assertEquals(3, index.getNbVoters());
+	for (int i = 0; i < 4; ++i) {
+	    assertEquals(i, index.getIndex(index.getAlternative(i)));
+	}
+	assertEquals(k.getVoters().asList(), index.getVoters());
+	assertEquals(2, index.getIndex(k.getVoters().asList().get(2)));
+	assertEquals(ImmutableMap.of(k.getVoters().asList().get(0), 5, k.getVoters().asList().get(1), 6,
+		k.getVoters().asList().get(2), 7), index.asVoterMap(new int[] { 5, 6, 7 }));
+	assertThrows(IllegalArgumentException.class, () -> index.getIndex(Alternative.withId(100)));
+	assertEquals(index, UpdateablePreferenceKnowledge.copyOf(k).getIndex());
+    }
+
+    @Test
+    void testIncomparability() throws Exception {
+	final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge.given(Generator.getAlternatives(3),
+		Generator.getVoters(2));
+	final Voter v1 = Voter.withId(1);
+	final Voter v2 = Voter.withId(2);
+	final Alternative a1 = Alternative.withId(1);
+	final Alternative a2 = Alternative.withId(2);
+	final Alternative a3 = Alternative.withId(3);
+	assertEquals(ImmutableSet.of(v1, v2), k.getQuestionableVoters());
+	assertEquals(3, k.getIncomparablePairs(v1).size());
+
+	k.update(VoterPreferenceInformation.given(v1, a1, a2));
+	k.update(VoterPreferenceInformation.given(v1, a2, a3));
+	assertEquals(ImmutableSet.of(v2), k.getQuestionableVoters());
+	assertEquals(ImmutableSet.of(), k.getIncomparablePairs(v1));
+
+	k.update(VoterPreferenceInformation.given(v2, a3, a2));
+	assertEquals(ImmutableList.of(EndpointPair.unordered(a1, a2), EndpointPair.unordered(a1, a3)),
+		k.getIncomparablePairs(v2).asList());
+	assertEquals(Helper.getIncomparablePairs(k.getPartialPreference(v2).asTransitiveGraph()),
+		k.getIncomparablePairs(v2));
+	assertEquals(k.getQuestionableVoters(), UpdateablePreferenceKnowledge.copyOf(k).getQuestionableVoters());
+    }
+
+    @Test
+    void testProfileComplete() throws Exception {
+	final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge.given(Generator.getAlternatives(4),
+		Generator.getVoters(2));
+	final Voter v1 = Voter.withId(1);
+	final Voter v2 = Voter.withId(2);
+	final VoterStrictPreference p1 = VoterStrictPreference.given(v1,
+		ImmutableList.of(Alternative.withId(3), Alternative.withId(1), Alternative.withId(4), Alternative.withId(2)));
+	final VoterStrictPreference p2 = VoterStrictPreference.given(v2,
+		ImmutableList.of(Alternative.withId(1), Alternative.withId(2), Alternative.withId(3), Alternative.withId(4)));
+	assertFalse(k.isProfileComplete());
+	/** Asks the consecutive pairs in an order that exercises transitivity. */
+	for (int rank : ImmutableList.of(3, 1, 2)) {
+	    k.update(VoterPreferenceInformation.given(v1, p1.getAlternativeAtRank(rank),
+		    p1.getAlternativeAtRank(rank + 1)));
+	    assertEquals(Helper.getIncomparablePairs(k.getPartialPreference(v1).asTransitiveGraph()),
+		    k.getIncomparablePairs(v1));
+	}
+	assertEquals(ImmutableSet.of(v2), k.getQuestionableVoters());
+	assertFalse(k.isProfileComplete());
+	for (int rank = 1; rank <= 3; ++rank) {
+	    k.update(VoterPreferenceInformation.given(v2, p2.getAlternativeAtRank(rank),
+		    p2.getAlternativeAtRank(rank + 1)));
+	}
+	assertTrue(k.isProfileComplete());
+	assertEquals(ImmutableSet.of(), k.getQuestionableVoters());
+    }
+
+    @Test
+    void testUpdateAll() throws Exception {
+	final Voter v1 = Voter.withId(1);
+	final Voter v2 = Voter.withId(2);
+	final Alternative a1 = Alternative.withId(1);
+	final Alternative a2 = Alternative.withId(2);
+	final Alternative a3 = Alternative.withId(3);
+	final Apint ap2 = new Apint(2);
+	final Apint ap3 = new Apint(3);
+	final ImmutableList<PreferenceInformation> information = ImmutableList.of(
+		PreferenceInformation.aboutVoter(v1, a1, a2),
+		PreferenceInformation.aboutCommittee(1, ComparisonOperator.GE, ap2),
+		PreferenceInformation.aboutVoter(v2, a3, a2), PreferenceInformation.aboutVoter(v1, a2, a3),
+		PreferenceInformation.aboutCommittee(1, ComparisonOperator.LE, ap3),
+		PreferenceInformation.aboutCommittee(1, ComparisonOperator.GE, new Apint(1)),
+		/** Does not narrow the lambda range, capped at n, but still constrains the weights. */
+		PreferenceInformation.aboutCommittee(2, ComparisonOperator.LE, new Apint(5)));
+
+	final UpdateablePreferenceKnowledge sequential = UpdateablePreferenceKnowledge
+		.given(Generator.getAlternatives(4), Generator.getVoters(2));
+	final UpdateablePreferenceKnowledge batch = UpdateablePreferenceKnowledge.copyOf(sequential);
+	information.forEach(sequential::update);
+	batch.updateAll(information);
+
+	assertEquals(sequential.getProfile(), batch.getProfile());
+	assertEquals(sequential.getQuestionableVoters(), batch.getQuestionableVoters());
+	assertEquals(sequential.getIncomparablePairs(v1), batch.getIncomparablePairs(v1));
+	assertEquals(sequential.getIncomparablePairs(v2), batch.getIncomparablePairs(v2));
+	assertEquals(sequential.getLambdaRange(1), batch.getLambdaRange(1));
+	assertEquals(sequential.getLambdaRange(2), batch.getLambdaRange(2));
+	assertEquals(sequential.getNbUpdates(), batch.getNbUpdates());
+	assertEquals(sequential.getCommitteeInformation(), batch.getCommitteeInformation());
+	assertEquals(sequential.getConstraintsOnWeights().getSnapshot().getRows(),
+		batch.getConstraintsOnWeights().getSnapshot().getRows());
+	assertEquals(sequential.getConstraintsOnWeights().getWeightRange(2).lowerEndpoint(),
+		batch.getConstraintsOnWeights().getWeightRange(2).lowerEndpoint(), 1e-6);
+	assertEquals(sequential.getConstraintsOnWeights().getWeightRange(2).upperEndpoint(),
+		batch.getConstraintsOnWeights().getWeightRange(2).upperEndpoint(), 1e-6);
+
+	final UpdateablePreferenceKnowledge before = UpdateablePreferenceKnowledge.copyOf(batch);
+	assertThrows(IllegalArgumentException.class,
+		() -> batch.updateAll(ImmutableList.of(PreferenceInformation.aboutVoter(v2, a1, a2),
+			PreferenceInformation.aboutCommittee(1, ComparisonOperator.EQ, new Apint(4)))));
+	assertEquals(before.getProfile(), batch.getProfile());
+	assertEquals(before.getNbUpdates(), batch.getNbUpdates());
+	assertEquals(before.getCommitteeInformation(), batch.getCommitteeInformation());
+    }
+
+    @Test
+    void testLambdaRangesSummary() throws Exception {
+	final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge.given(Generator.getAlternatives(5),
+		Generator.getVoters(4));
+	assertEquals(3d, k.getLambdaRangeWidth(2));
+	assertEquals(new Aprational(new Apint(5), new Apint(2)), k.getLambdaRangeMidpoint(2));
+	assertEquals(1, k.getWidestLambdaRangeRank());
+
+	k.addConstraint(1, ComparisonOperator.LE, new Apint(2));
+	assertEquals(1d, k.getLambdaRangeWidth(1));
+	assertEquals(2, k.getWidestLambdaRangeRank());
+	k.updateAll(ImmutableList.of(PreferenceInformation.aboutCommittee(2, ComparisonOperator.GE, new Apint(3)),
+		PreferenceInformation.aboutCommittee(3, ComparisonOperator.EQ, new Apint(2))));
+	assertEquals(0d, k.getLambdaRangeWidth(3));
+	assertEquals(new Aprational(new Apint(7), new Apint(2)), k.getLambdaRangeMidpoint(2));
+	assertEquals(1, k.getWidestLambdaRangeRank());
+
+	final UpdateablePreferenceKnowledge copy = UpdateablePreferenceKnowledge.copyOf(k);
+	copy.addConstraint(1, ComparisonOperator.EQ, new Apint(2));
+	assertEquals(2, copy.getWidestLambdaRangeRank());
+	assertEquals(1, k.getWidestLambdaRangeRank());
+    }
+
 }
@@ -8,8 +8,14 @@ import static io.github.oliviercailloux.minimax.Basics.p1;
 import static io.github.oliviercailloux.minimax.Basics.v1;
 import static io.github.oliviercailloux.minimax.Basics.w;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apfloat.Apint;
 import org.junit.jupiter.api.Test;
@@ -20,9 +26,17 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import io.github.oliviercailloux.j_voting.VoterStrictPreference;
+import io.github.oliviercailloux.minimax.Basics;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.QuestionType;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+import io.github.oliviercailloux.minimax.experiment.json.JsonConverter;
+import io.github.oliviercailloux.minimax.experiment.other_formats.ToCsv;
 import io.github.oliviercailloux.minimax.regret.Regrets;
+import io.github.oliviercailloux.minimax.strategies.QuestioningConstraint;
+import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+import io.github.oliviercailloux.minimax.utils.Generator;
 
 class RunnerTests {
     @SuppressWarnings("unused")
@@ -61,4 +75,133 @@ class RunnerTests {
 	assertEquals(0.3333d, iterator.next().doubleValue(), 0.0001d);
     }
 
+    @Test
+    void testQuestionLog() {
+	final ImmutableList<Question> questions = ImmutableList.of(Question.toVoter(v1, a1, a2),
+		Question.toCommittee(new Apint(1), 1), Question.toVoter(v1, a3, a2));
+	final QuestionLog log = QuestionLog.copyOf(questions);
+	assertEquals(3, log.size());
+	assertEquals(2, log.getNbVoterQuestions());
+	assertEquals(1, log.getNbCommitteeQuestions());
+	assertEquals(QuestionType.COMMITTEE_QUESTION, log.getType(1));
+	assertEquals(1, log.getRank(1));
+	assertEquals(v1.getId(), log.getVoterId(2));
+	assertEquals(questions, log.asList());
+	assertEquals(log, QuestionLog.copyOf(ImmutableList.of(Question.toVoter(v1, a2, a1),
+		Question.toCommittee(new Apint(1), 1), Question.toVoter(v1, a2, a3))));
+    }
+
+    @Test
+    void testQuestionStats() {
+	final Oracle oracle = Oracle.build(ImmutableMap.of(v1, VoterStrictPreference.given(v1, p1)), w);
+	final Run run = Runner.run(factory, oracle, 2);
+	assertEquals(2, run.getQuestionStats().size());
+	assertTrue(run.getQuestionStats().stream().allMatch(s -> s.getTotalNs() > 0l));
+	assertEquals(ImmutableList.of(), Run.of(oracle, run.getQuestions(), run.getQuestionTimesMs()).getQuestionStats());
+    }
+
+    @Test
+    void testPerRunStreams() throws Exception {
+	final StrategyFactory perRun = StrategyFactory.css(42l).perRunStreams();
+	assertTrue(perRun.hasPerRunStreams());
+	final StrategyFactory read = JsonConverter.toFactory(JsonConverter.toJson(perRun).toString());
+	assertTrue(read.hasPerRunStreams());
+
+	final ImmutableList<Oracle> oracles = ImmutableList.of(
+		Oracle.build(Generator.genProfile(5, 5), Generator.genWeightsWithUnbalancedDistribution(5)),
+		Oracle.build(Generator.genProfile(5, 5), Generator.genWeightsWithUnbalancedDistribution(5)),
+		Oracle.build(Generator.genProfile(5, 5), Generator.genWeightsWithUnbalancedDistribution(5)));
+	final ImmutableList.Builder<List<Question>> inOrder = ImmutableList.builder();
+	for (int i = 0; i < oracles.size(); ++i) {
+	    inOrder.add(Runner.run(perRun, oracles.get(i), 6, i).getQuestions());
+	}
+
+	/** Reversed and concurrent, with a factory read back from JSON. */
+	final ForkJoinPool pool = new ForkJoinPool(3);
+	final ImmutableList.Builder<List<Question>> concurrently = ImmutableList.builder();
+	try {
+	    final ImmutableList<ForkJoinTask<Run>> tasks = ImmutableList.of(2, 1, 0).stream()
+		    .map(i -> pool.submit(() -> Runner.run(read, oracles.get(i), 6, i)))
+		    .collect(ImmutableList.toImmutableList());
+	    for (ForkJoinTask<Run> task : tasks.reverse()) {
+		concurrently.add(task.join().getQuestions());
+	    }
+	} finally {
+	    pool.shutdown();
+	}
+	final ImmutableList<List<Question>> expected = inOrder.build();
+	assertEquals(expected, concurrently.build());
+
+	final Path file = Files.createTempFile("checkpoint", ".bin");
+	Files.delete(file);
+	assertEquals(expected.get(1), Runner.runWithCheckpoints(perRun, oracles.get(1), 6, 1, file, 3).getQuestions());
+	Files.delete(file);
+    }
+
+    @Test
+    void testCheckpoints() throws Exception {
+	final Path file = Files.createTempFile("checkpoint", ".bin");
+	Files.delete(file);
+	final Run firstPart = Runner.runWithCheckpoints(factory, Basics.oracle, 2, file, 1);
+	assertEquals(2, firstPart.getK());
+	assertEquals(2, firstPart.getQuestionStats().size());
+
+	final Checkpoint checkpoint = Checkpoint.read(file);
+	assertEquals(firstPart.getQuestions(), checkpoint.getQuestions());
+	assertTrue(checkpoint.getStrategyState().isPresent());
+	final UpdateablePreferenceKnowledge restored = checkpoint.restoreKnowledge();
+	final UpdateablePreferenceKnowledge expected = UpdateablePreferenceKnowledge
+		.given(Basics.oracle.getAlternatives(), Basics.oracle.getProfile().keySet());
+	for (Question question : firstPart.getQuestions()) {
+	    expected.update(Basics.oracle.getPreferenceInformation(question));
+	}
+	assertEquals(expected.getProfile(), restored.getProfile());
+	assertEquals(expected.getLambdaRange(1), restored.getLambdaRange(1));
+	assertEquals(expected.getNbUpdates(), restored.getNbUpdates());
+	assertEquals(checkpoint, Checkpoint.of(restored, checkpoint.getQuestions(), checkpoint.getDurationsMs(),
+		checkpoint.getStrategyState()));
+
+	final Run resumed = Runner.runWithCheckpoints(factory, Basics.oracle, 4, file, 1);
+	assertEquals(4, resumed.getK());
+	assertEquals(firstPart.getQuestions(), resumed.getQuestions().subList(0, 2));
+	assertEquals(ImmutableList.of(), resumed.getQuestionStats());
+	Files.delete(file);
+    }
+
+    @Test
+    void testResumeEqualsUninterrupted() throws Exception {
+	final StrategyFactory perRun = StrategyFactory
+		.limited(7l, ImmutableList.of(QuestioningConstraint.of(QuestionType.COMMITTEE_QUESTION, 2),
+			QuestioningConstraint.of(QuestionType.VOTER_QUESTION, Integer.MAX_VALUE)))
+		.perRunStreams();
+	final Oracle generated = Generator.generateOracle(4, 3, 11l);
+	final int i = 2;
+	final List<Question> uninterrupted = Runner.run(perRun, generated, 6, i).getQuestions();
+
+	final Path file = Files.createTempFile("checkpoint", ".bin");
+	Files.delete(file);
+	final Run firstPart = Runner.runWithCheckpoints(perRun, generated, 3, i, file, 3);
+	assertEquals(uninterrupted.subList(0, 3), firstPart.getQuestions());
+	final Run resumed = Runner.runWithCheckpoints(perRun, generated, 6, i, file, 3);
+	assertEquals(uninterrupted, resumed.getQuestions());
+	Files.delete(file);
+    }
+
+    @Test
+    void testTournament() {
+	final Tournament tournament = Tournament.given(ImmutableList.of(factory, StrategyFactory.elitist()),
+		i -> Generator.generateOracle(3, 2, i), 2);
+	tournament.setRoundSize(2);
+	tournament.setMaxNbOracles(4);
+	final ForkJoinPool pool = new ForkJoinPool(2);
+	final ImmutableList<Runs> allRuns = tournament.run(pool);
+	pool.shutdown();
+	assertEquals(2, allRuns.size());
+	for (Runs runs : allRuns) {
+	    assertEquals(4, runs.nbRuns());
+	}
+	assertEquals(Generator.generateOracle(3, 2, 3), allRuns.get(0).getRun(3).getOracle());
+	assertEquals(allRuns.get(0).getRun(3).getOracle(), allRuns.get(1).getRun(3).getOracle());
+	assertEquals(3, ToCsv.toComparisonCsv(allRuns).lines().count());
+    }
 }
@@ -4,28 +4,47 @@ import static io.github.oliviercailloux.minimax.Basics.cConstraint;
 import static io.github.oliviercailloux.minimax.Basics.oracle;
 import static io.github.oliviercailloux.minimax.Basics.p1;
 import static io.github.oliviercailloux.minimax.Basics.profile;
+import static io.github.oliviercailloux.minimax.Basics.q1;
+import static io.github.oliviercailloux.minimax.Basics.q2;
 import static io.github.oliviercailloux.minimax.Basics.run;
 import static io.github.oliviercailloux.minimax.Basics.runs;
 import static io.github.oliviercailloux.minimax.Basics.v1;
 import static io.github.oliviercailloux.minimax.Basics.vConstraint;
 import static io.github.oliviercailloux.minimax.Basics.w;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.EndpointPair;
 
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
 import io.github.oliviercailloux.j_voting.VoterStrictPreference;
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
 import io.github.oliviercailloux.json.PrintableJsonObject;
 import io.github.oliviercailloux.json.PrintableJsonValue;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
 import io.github.oliviercailloux.minimax.experiment.Run;
 import io.github.oliviercailloux.minimax.experiment.Runs;
+import io.github.oliviercailloux.minimax.strategies.Helper;
 import io.github.oliviercailloux.minimax.strategies.MmrLottery;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
 
@@ -133,4 +152,58 @@ public class JsonConverterTests {
 	LOGGER.info("Written.");
 	assertEquals(source, json.toString());
     }
+
+    @Test
+    void testQuestionCodec() throws Exception {
+	assertEquals(q1, QuestionCodec.toQuestion(QuestionCodec.toJson(q1)));
+	assertEquals(q2, QuestionCodec.toQuestion(QuestionCodec.toJson(q2)));
+
+	final String json = "[{\"aboutVoter\":{\"voter\":1,\"better\":1,\"worse\":2}},"
+		+ "{\"aboutCommittee\":{\"rank\":1,\"operator\":\"LE\","
+		+ "\"lambda\":{\"numerator\":1,\"denominator\":2}}}]";
+	try (JsonParser parser = Json.createParser(new StringReader(json))) {
+	    assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+	    assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+	    final PreferenceInformation aboutVoter = PreferenceInformation.aboutVoter(Voter.withId(1),
+		    Alternative.withId(1), Alternative.withId(2));
+	    assertEquals(aboutVoter, QuestionCodec.readAnswerContent(parser));
+	    assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+	    assertEquals(PreferenceInformation.aboutCommittee(1, ComparisonOperator.LE,
+		    new Aprational(new Apint(1), new Apint(2))), QuestionCodec.readAnswerContent(parser));
+	    assertEquals(JsonParser.Event.END_ARRAY, parser.next());
+	}
+    }
+
+    @Test
+    void testReadKnowledge() throws Exception {
+	final String json = "{\"alternatives\":[1,2,3,4],\"voters\":[1,2,3],"
+		+ "\"ballots\":[{\"voter\":1,\"top\":[3,1]},{\"voter\":2,\"top\":[2,1,4]}],"
+		+ "\"answers\":[{\"aboutCommittee\":{\"rank\":1,\"operator\":\"GE\","
+		+ "\"lambda\":{\"numerator\":2,\"denominator\":1}}}]}";
+	final UpdateablePreferenceKnowledge knowledge = KnowledgeReader.read(new StringReader(json));
+	final Alternative a1 = Alternative.withId(1);
+	final Alternative a2 = Alternative.withId(2);
+	final Alternative a4 = Alternative.withId(4);
+	assertEquals(ImmutableSet.of(Voter.withId(1), Voter.withId(3)), knowledge.getQuestionableVoters());
+	assertEquals(ImmutableSet.of(EndpointPair.unordered(a2, a4)), knowledge.getIncomparablePairs(Voter.withId(1)));
+	assertTrue(knowledge.getPartialPreference(Voter.withId(1)).asTransitiveGraph().hasEdgeConnecting(a1, a4));
+	assertEquals(6, knowledge.getIncomparablePairs(Voter.withId(3)).size());
+	for (Voter voter : knowledge.getVoters()) {
+	    assertEquals(Helper.getIncomparablePairs(knowledge.getPartialPreference(voter).asTransitiveGraph()),
+		    knowledge.getIncomparablePairs(voter));
+	}
+	assertEquals(new Apint(2), knowledge.getLambdaRange(1).lowerEndpoint());
+	assertEquals(3, knowledge.getNbUpdates());
+    }
+
+    @Test
+    void testReadKnowledgeMalformed() throws Exception {
+	final String badTop = "{\"alternatives\":[1,2,3,4],\"voters\":[1,2],"
+		+ "\"ballots\":[{\"voter\":1,\"top\":[3,\"1\"]}]}";
+	assertThrows(IllegalArgumentException.class, () -> KnowledgeReader.read(new StringReader(badTop)));
+	final String badAlternatives = "{\"alternatives\":[1,2,true],\"voters\":[1,2]}";
+	assertThrows(IllegalArgumentException.class, () -> KnowledgeReader.read(new StringReader(badAlternatives)));
+	final String badAnswers = "{\"alternatives\":[1,2,3,4],\"voters\":[1,2],\"answers\":[1]}";
+	assertThrows(IllegalArgumentException.class, () -> KnowledgeReader.read(new StringReader(badAnswers)));
+    }
 }
@@ -1,10 +1,12 @@
 package io.github.oliviercailloux.minimax.regret;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -132,6 +134,23 @@ class RegretComputerTest {
 		.get(a).stream().map((p) -> p.getY()).collect(ImmutableSet.toImmutableSet()));
     }
 
+    @Test
+    void testApproximateMMR() throws Exception {
+	final ImmutableSet<Alternative> alternatives = ImmutableSet.of(Alternative.withId(1), Alternative.withId(2),
+		Alternative.withId(3), Alternative.withId(4), Alternative.withId(5));
+	final Voter v1 = Voter.withId(1);
+	final Voter v2 = Voter.withId(2);
+	final UpdateablePreferenceKnowledge knowledge = UpdateablePreferenceKnowledge.given(alternatives,
+		ImmutableSet.of(v1, v2));
+	knowledge.getProfile().get(v1).asGraph().putEdge(Alternative.withId(1), Alternative.withId(2));
+	knowledge.getProfile().get(v2).asGraph().putEdge(Alternative.withId(3), Alternative.withId(1));
+
+	final double exact = new RegretComputer(knowledge).getMinimalMaxRegrets().getMinimalMaxRegretValue();
+	final RegretComputer approximate = new RegretComputer(knowledge, 20);
+	assertTrue(approximate.getMinimalMaxRegrets().getMinimalMaxRegretValue() <= exact + 1e-6);
+	assertTrue(approximate.getApproximationErrors().min() >= -1e-6);
+    }
+
     @Test
     void testRanksXpreferredY() throws Exception {
 	/** case 1: x>y put as much alts as possible above x **/
@@ -468,4 +487,41 @@ class RegretComputerTest {
 //		}
     }
 
+
+    @Test
+    void testScoringKernel() {
+	final PSRWeights w1 = PSRWeights.given(ImmutableList.of(1d, 0.4d, 0d));
+	final PSRWeights w2 = PSRWeights.given(ImmutableList.of(1d, 0.2d, 0d));
+	final PSRWeights w3 = PSRWeights.given(ImmutableList.of(1d, 0.5d, 0d));
+	/** Pairs where x is one rank below y for a single voter, at ranks 3 or 2, and a null pair. */
+	final ScoringKernel kernel = ScoringKernel.given(ImmutableList.of(new double[] { 0d, 1d, -1d },
+		new double[] { 1d, -1d, 0d }, new double[] { 0d, 0d, 0d }));
+	assertEquals(3, kernel.getNbPairs());
+	assertArrayEquals(new double[] { 0.4d, 0.6d, 0d }, kernel.getScores(w1));
+	assertArrayEquals(new double[] { 0.5d, 0.5d, 0d }, kernel.getScores(ImmutableList.of(w2, w3))[1]);
+	assertArrayEquals(new int[] { 2, 1, 0 }, kernel.getArgMax(ImmutableList.of(w1, w2, w3)));
+    }
+
+    @Test
+    void testAccumulators() {
+	final Random random = new Random(0l);
+	final int m = 5;
+	/** Not a multiple of any vector length, so that the tail loop runs. */
+	final int nbPairs = 37;
+	final double[] coefficientsByRank = new double[m * nbPairs];
+	for (int i = 0; i < coefficientsByRank.length; ++i) {
+	    coefficientsByRank[i] = random.nextInt(11) - 5;
+	}
+	final double[] weights = new double[m];
+	for (int r = 0; r < m; ++r) {
+	    weights[r] = random.nextDouble();
+	}
+	final double[] scalar = new double[nbPairs];
+	ScoringKernel.SCALAR.accumulate(coefficientsByRank, nbPairs, weights, scalar);
+	final double[] used = new double[nbPairs];
+	ScoringKernel.ACCUMULATOR.accumulate(coefficientsByRank, nbPairs, weights, used);
+	assertArrayEquals(scalar, used);
+	/** The tests run with the incubating module. */
+	assertTrue(ScoringKernel.isVectorized());
+    }
 }
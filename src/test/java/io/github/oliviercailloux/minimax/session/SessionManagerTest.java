@@ -0,0 +1,84 @@
+package io.github.oliviercailloux.minimax.session;
+
+import static io.github.oliviercailloux.minimax.Basics.factory;
+import static io.github.oliviercailloux.minimax.Basics.p1;
+import static io.github.oliviercailloux.minimax.Basics.v1;
+import static io.github.oliviercailloux.minimax.Basics.w;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.github.oliviercailloux.j_voting.VoterStrictPreference;
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.minimax.elicitation.CommitteePreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Oracle;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.experiment.Run;
+import io.github.oliviercailloux.minimax.experiment.Runner;
+import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+
+class SessionManagerTest {
+
+    @Test
+    void testLoopback() throws Exception {
+	final Oracle oracle = Oracle.build(ImmutableMap.of(v1, VoterStrictPreference.given(v1, p1)), w);
+	try (SessionManager manager = SessionManager.create(2, Duration.ofMinutes(1))) {
+	    /** Each side draws from the stream of run 2, whatever the other tests drew. */
+	    final StrategyFactory perRun = factory.perRunStreams();
+	    final Run run = LoopbackDriver.run(manager, perRun, oracle, 3, 2);
+	    assertEquals(Runner.run(perRun, oracle, 3, 2).getQuestions(), run.getQuestions());
+	    assertEquals(0, manager.getNbSessions());
+
+	    final ElicitationSession session = manager.open(oracle.getAlternatives(), oracle.getProfile().keySet(),
+		    factory);
+	    final Question q = session.nextQuestion();
+	    assertEquals(q, session.nextQuestion());
+	    assertTrue(session.hasPendingQuestion());
+	    session.answer(oracle.getPreferenceInformation(q));
+	    assertFalse(session.hasPendingQuestion());
+	    assertTrue(manager.get(session.getId()).isPresent());
+	}
+    }
+
+    @Test
+    void testAnswers() {
+	final Aprational half = new Aprational(new Apint(1), new Apint(2));
+	final Aprational third = new Aprational(new Apint(1), new Apint(3));
+	final Question q = Question.toCommittee(half, 1);
+	assertTrue(ElicitationSession.answers(q.getPositiveInformation(), q));
+	assertTrue(ElicitationSession.answers(aboutCommittee(1, new Aprational(new Apint(2), new Apint(4))), q));
+	assertFalse(ElicitationSession.answers(aboutCommittee(1, third), q));
+	assertFalse(ElicitationSession.answers(aboutCommittee(2, half), q));
+    }
+
+    private static PreferenceInformation aboutCommittee(int rank, Aprational lambda) {
+	return PreferenceInformation
+		.aboutCommittee(CommitteePreferenceInformation.given(rank, ComparisonOperator.LE, lambda));
+    }
+
+    @Test
+    void testEviction() throws Exception {
+	final Oracle oracle = Oracle.build(ImmutableMap.of(v1, VoterStrictPreference.given(v1, p1)), w);
+	try (SessionManager manager = SessionManager.create(1, Duration.ofNanos(1))) {
+	    final ElicitationSession session = manager.open(oracle.getAlternatives(), oracle.getProfile().keySet(),
+		    factory);
+	    Thread.sleep(1);
+	    manager.evictIdle();
+	    assertFalse(manager.get(session.getId()).isPresent());
+	    assertTrue(session.isClosed());
+	    assertThrows(IllegalStateException.class, () -> session.nextQuestion());
+	    final Question q = Question.toVoter(v1, p1.get(0), p1.get(1));
+	    assertThrows(IllegalStateException.class, () -> session.answer(q.getPositiveInformation()));
+	}
+    }
+}
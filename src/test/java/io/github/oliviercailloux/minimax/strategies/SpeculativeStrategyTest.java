@@ -0,0 +1,125 @@
+package io.github.oliviercailloux.minimax.strategies;
+
+import static io.github.oliviercailloux.minimax.Basics.oracle;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.minimax.elicitation.Oracle;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.QuestionCommittee;
+import io.github.oliviercailloux.minimax.elicitation.QuestionType;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+import io.github.oliviercailloux.minimax.experiment.Runner;
+import io.github.oliviercailloux.minimax.utils.Counters;
+import io.github.oliviercailloux.minimax.utils.Counters.Counter;
+import io.github.oliviercailloux.minimax.utils.Generator;
+
+class SpeculativeStrategyTest {
+
+    @Test
+    void testServesBranches() throws Exception {
+	final ExecutorService executor = Executors.newFixedThreadPool(2);
+	try {
+	    final SpeculativeStrategy strategy = SpeculativeStrategy.given(() -> StrategyByMmr.build(), executor);
+	    final UpdateablePreferenceKnowledge knowledge = UpdateablePreferenceKnowledge
+		    .given(oracle.getAlternatives(), oracle.getProfile().keySet());
+	    strategy.setKnowledge(knowledge);
+
+	    final ImmutableList.Builder<Question> asked = ImmutableList.builder();
+	    final int k = 4;
+	    for (int i = 1; i <= k; ++i) {
+		final Question q = strategy.nextQuestion();
+		asked.add(q);
+		knowledge.update(oracle.getPreferenceInformation(q));
+	    }
+	    assertEquals(k, asked.build().size());
+	    assertEquals(k - 1, strategy.getNbServed());
+	} finally {
+	    executor.shutdownNow();
+	}
+    }
+
+    @Test
+    void testSameQuestionsAsPlain() throws Exception {
+	final Oracle generated = Generator.generateOracle(4, 3, 7l);
+	final ImmutableList<QuestioningConstraint> constraints = ImmutableList.of(
+		QuestioningConstraint.of(QuestionType.COMMITTEE_QUESTION, 2),
+		QuestioningConstraint.of(QuestionType.VOTER_QUESTION, Integer.MAX_VALUE));
+	final int k = 6;
+	final Counters plainCounters = Counters.create();
+	final List<Question> plain;
+	try (Counters.Scope scope = plainCounters.bind()) {
+	    plain = Runner.run(StrategyFactory.limited(5l, constraints), generated, k).getQuestions();
+	}
+
+	final ExecutorService executor = Executors.newFixedThreadPool(2);
+	try {
+	    final SpeculativeStrategy strategy = SpeculativeStrategy.given(StrategyFactory.limited(5l, constraints),
+		    executor);
+	    final UpdateablePreferenceKnowledge knowledge = UpdateablePreferenceKnowledge
+		    .given(generated.getAlternatives(), generated.getProfile().keySet());
+	    strategy.setKnowledge(knowledge);
+
+	    final ImmutableList.Builder<Question> asked = ImmutableList.builder();
+	    final Counters counters = Counters.create();
+	    try (Counters.Scope scope = counters.bind()) {
+		for (int i = 1; i <= k; ++i) {
+		    final Question q = strategy.nextQuestion();
+		    asked.add(q);
+		    knowledge.update(generated.getPreferenceInformation(q));
+		}
+	    }
+	    assertEquals(plain, asked.build());
+	    assertEquals(k - 1, strategy.getNbServed());
+	    /** The discarded branches, including those still running, are not counted. */
+	    assertEquals(plainCounters.get(Counter.LP_SOLVE), counters.get(Counter.LP_SOLVE));
+	} finally {
+	    executor.shutdownNow();
+	}
+    }
+
+    @Test
+    void testRecomputesOnEqualAnswer() throws Exception {
+	final Oracle generated = Generator.generateOracle(4, 3, 7l);
+	final ImmutableList<QuestioningConstraint> constraints = ImmutableList.of(
+		QuestioningConstraint.of(QuestionType.COMMITTEE_QUESTION, 1),
+		QuestioningConstraint.of(QuestionType.VOTER_QUESTION, Integer.MAX_VALUE));
+	final Strategy plain = StrategyFactory.limited(5l, constraints).get();
+	final UpdateablePreferenceKnowledge plainKnowledge = UpdateablePreferenceKnowledge
+		.given(generated.getAlternatives(), generated.getProfile().keySet());
+	plain.setKnowledge(plainKnowledge);
+
+	final ExecutorService executor = Executors.newFixedThreadPool(2);
+	try {
+	    final SpeculativeStrategy strategy = SpeculativeStrategy.given(StrategyFactory.limited(5l, constraints),
+		    executor);
+	    final UpdateablePreferenceKnowledge knowledge = UpdateablePreferenceKnowledge
+		    .given(generated.getAlternatives(), generated.getProfile().keySet());
+	    strategy.setKnowledge(knowledge);
+
+	    final Question first = strategy.nextQuestion();
+	    assertEquals(plain.nextQuestion(), first);
+	    assertEquals(QuestionType.COMMITTEE_QUESTION, first.getType());
+	    final QuestionCommittee q = first.asQuestionCommittee();
+	    /** Entails both hypothetical answers, but is neither of them. */
+	    final PreferenceInformation equal = PreferenceInformation.aboutCommittee(q.getRank(),
+		    ComparisonOperator.EQ, q.getLambda());
+	    knowledge.update(equal);
+	    plainKnowledge.update(equal);
+
+	    assertEquals(plain.nextQuestion(), strategy.nextQuestion());
+	    assertEquals(0, strategy.getNbServed());
+	} finally {
+	    executor.shutdownNow();
+	}
+    }
+}
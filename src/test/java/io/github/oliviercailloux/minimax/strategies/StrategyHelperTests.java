@@ -1,9 +1,14 @@
 package io.github.oliviercailloux.minimax.strategies;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.apfloat.Apint;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.GraphBuilder;
@@ -13,7 +18,11 @@ import com.google.common.graph.MutableGraph;
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Generator;
 import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
+import io.github.oliviercailloux.minimax.elicitation.QuestionCommittee;
 import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+import io.github.oliviercailloux.minimax.regret.PairwiseMaxRegret;
 
 public class StrategyHelperTests {
     @Test
@@ -50,4 +59,24 @@ public class StrategyHelperTests {
 	helper.setKnowledge(k);
 	assertEquals(ImmutableSet.of(), helper.getQuestionableVoters());
     }
+
+    @Test
+    void testCommitteeQuestionCandidates() {
+	final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge.given(Generator.getAlternatives(4),
+		Generator.getVoters(3));
+	k.addConstraint(2, ComparisonOperator.EQ, new Apint(2));
+	final Helper helper = Helper.newInstance();
+	helper.setKnowledge(k);
+	/** Ratios of differences: 0.5/0.3 at rank 1, 0.3/0.2 at rank 2. */
+	final PSRWeights weights = PSRWeights.given(ImmutableList.of(1d, 0.5d, 0.2d, 0d));
+	final ImmutableMap<Voter, Integer> ranks = ImmutableMap.of(Voter.withId(1), 1);
+	final PairwiseMaxRegret pmr = PairwiseMaxRegret.given(Alternative.withId(1), Alternative.withId(2), ranks,
+		ranks, weights);
+
+	final ImmutableSet<QuestionCommittee> candidates = helper.getCommitteeQuestionCandidates(3,
+		ImmutableSet.of(pmr));
+	assertTrue(candidates.stream().allMatch(q -> q.getRank() == 1));
+	final double[] lambdas = candidates.stream().mapToDouble(q -> q.getLambda().doubleValue()).sorted().toArray();
+	assertArrayEquals(new double[] { 1.5d, 1.667d, 2d, 2.5d }, lambdas, 1e-9);
+    }
 }
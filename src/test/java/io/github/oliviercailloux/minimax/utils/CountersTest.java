@@ -0,0 +1,47 @@
+package io.github.oliviercailloux.minimax.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.oliviercailloux.minimax.utils.Counters.Counter;
+
+class CountersTest {
+
+    @Test
+    void testBind() throws Exception {
+	final Counters counters = Counters.create();
+	final long before = Counters.current().get(Counter.PMR);
+	final ExecutorService executor = Executors.newSingleThreadExecutor();
+	try {
+	    executor.submit(() -> {
+		try (Counters.Scope scope = counters.bind()) {
+		    Counters.increment(Counter.PMR);
+		}
+		/** No more bound: counted into the counters of the thread. */
+		Counters.increment(Counter.PMR);
+	    }).get();
+	} finally {
+	    executor.shutdown();
+	}
+	assertEquals(1l, counters.get(Counter.PMR));
+	assertEquals(0l, counters.get(Counter.LP_SOLVE));
+	assertEquals(before, Counters.current().get(Counter.PMR));
+    }
+
+    @Test
+    void testAddAll() {
+	final Counters counters = Counters.create();
+	final Counters other = Counters.create();
+	counters.add(Counter.PMR);
+	other.add(Counter.PMR);
+	other.add(Counter.LP_SOLVE);
+	counters.addAll(other);
+	assertEquals(2l, counters.get(Counter.PMR));
+	assertEquals(1l, counters.get(Counter.LP_SOLVE));
+	assertEquals(1l, other.get(Counter.PMR));
+    }
+}
@@ -1,8 +1,11 @@
 package io.github.oliviercailloux.minimax.utils;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -70,4 +73,56 @@ public class GeneratorTest {
 
     }
 
+    @Test
+    public void testGenPermutationsSeeded() {
+	final int m = 5;
+	final int n = 10000;
+	final int[] perms = Generator.genPermutations(m, n, 42l);
+	assertArrayEquals(perms, Generator.genPermutations(m, n, 42l));
+	assertFalse(Arrays.equals(perms, Generator.genPermutations(m, n, 43l)));
+	for (int v = 0; v < n; ++v) {
+	    final int[] row = Arrays.copyOfRange(perms, v * m, (v + 1) * m);
+	    Arrays.sort(row);
+	    assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, row);
+	}
+
+	final Map<Voter, VoterStrictPreference> profile = Generator.toProfile(perms, m, n);
+	assertEquals(n, profile.size());
+	final VoterStrictPreference last = profile.get(Voter.withId(n));
+	assertEquals(Alternative.withId(perms[(n - 1) * m]), last.asStrictPreference().getAlternatives().get(0));
+    }
+
+    @Test
+    public void testProfileModels() {
+	final int m = 4;
+	final int n = 5000;
+	for (ProfileModel model : ImmutableList.of(ProfileModel.impartialCulture(), ProfileModel.mallows(0.5d),
+		ProfileModel.plackettLuce(ImmutableList.of(4d, 3d, 2d, 1d)), ProfileModel.singlePeaked(),
+		ProfileModel.urn(1d))) {
+	    final int[] orders = model.genLinearOrders(m, n, 7l);
+	    assertArrayEquals(orders, model.genLinearOrders(m, n, 7l), model.getDescription());
+	    for (int v = 0; v < n; ++v) {
+		final int[] row = Arrays.copyOfRange(orders, v * m, (v + 1) * m);
+		Arrays.sort(row);
+		assertArrayEquals(new int[] { 1, 2, 3, 4 }, row, model.getDescription());
+	    }
+	}
+
+	final int[] identity = ProfileModel.mallows(0d).genLinearOrders(m, 2, 0l);
+	assertArrayEquals(new int[] { 1, 2, 3, 4, 1, 2, 3, 4 }, identity);
+
+	final int[] singlePeaked = ProfileModel.singlePeaked().genLinearOrders(m, n, 0l);
+	for (int v = 0; v < n; ++v) {
+	    /** The alternatives ranked up to any rank form an interval of the axis. */
+	    int min = singlePeaked[v * m];
+	    int max = min;
+	    for (int r = 1; r < m; ++r) {
+		final int a = singlePeaked[v * m + r];
+		assertTrue(a == min - 1 || a == max + 1);
+		min = Math.min(min, a);
+		max = Math.max(max, a);
+	    }
+	}
+    }
+
 }
@@ -0,0 +1,25 @@
+package io.github.oliviercailloux.minimax.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class IdIndexTest {
+
+    @Test
+    void testDenseAndSparse() {
+	final IdIndex dense = IdIndex.given(new int[] { 3, 1, 2 });
+	assertEquals(0, dense.getIndex(3));
+	assertEquals(2, dense.getIndex(2));
+	assertEquals(-1, dense.getIndex(0));
+	assertEquals(-1, dense.getIndex(4));
+	assertEquals(-1, dense.getIndex(-1));
+
+	final IdIndex sparse = IdIndex.given(new int[] { 1000, -5 });
+	assertEquals(0, sparse.getIndex(1000));
+	assertEquals(1, sparse.getIndex(-5));
+	assertEquals(-1, sparse.getIndex(0));
+
+	assertEquals(-1, IdIndex.given(new int[] {}).getIndex(0));
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.oliviercailloux.minimax.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.oliviercailloux.minimax.utils.SolverMetrics.Caller;
+import io.github.oliviercailloux.minimax.utils.SolverMetrics.Histogram;
+
+class SolverMetricsTest {
+
+    @Test
+    void testBuckets() {
+	assertEquals(7, Histogram.getBucket(7l));
+	assertEquals(8, Histogram.getBucket(8l));
+	assertEquals(15, Histogram.getBucket(15l));
+	assertEquals(16, Histogram.getBucket(16l));
+	assertEquals(16, Histogram.getBucket(17l));
+	for (long value : new long[] { 0l, 9l, 100l, 12345l, 1_000_000_007l, Long.MAX_VALUE }) {
+	    final int bucket = Histogram.getBucket(value);
+	    final long lower = Histogram.getLowerBound(bucket);
+	    assertEquals(bucket, Histogram.getBucket(lower));
+	    assertEquals(true, lower <= value && value - lower <= lower / Histogram.SUB_BUCKETS);
+	}
+    }
+
+    @Test
+    void testScopes() {
+	SolverMetrics.reset();
+	try (SolverMetrics.Scope scope = SolverMetrics.as(Caller.PMR)) {
+	    SolverMetrics.record(1000l);
+	    try (SolverMetrics.Scope inner = SolverMetrics.as(Caller.MIN_TAU_W)) {
+		SolverMetrics.record(10l);
+	    }
+	    SolverMetrics.record(3000l);
+	}
+	SolverMetrics.record(5l);
+	assertEquals(2l, SolverMetrics.getCount(Caller.PMR));
+	assertEquals(4000l, SolverMetrics.getHistogram(Caller.PMR).getTotalNs());
+	assertEquals(1l, SolverMetrics.getCount(Caller.MIN_TAU_W));
+	assertEquals(1l, SolverMetrics.getCount(Caller.OTHER));
+	assertEquals(5l, SolverMetrics.getHistogram(Caller.OTHER).getQuantileNs(0.5d));
+	assertEquals(0l, SolverMetrics.getCount(Caller.SAMPLING));
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.oliviercailloux.y2018.j_voting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+
+class StrictPreferenceTest {
+
+    @Test
+    void testRanks() {
+	final Alternative a1 = Alternative.withId(1);
+	final Alternative a2 = Alternative.withId(2);
+	final Alternative a3 = Alternative.withId(3);
+	final StrictPreference dense = new StrictPreference(ImmutableList.of(a3, a1, a2));
+	assertEquals(1, dense.getAlternativeRank(a3));
+	assertEquals(3, dense.getAlternativeRank(a2));
+	assertEquals(a1, dense.getAlternative(1));
+	assertEquals(ImmutableList.of(a3, a1, a2), dense.getAlternatives());
+	assertFalse(dense.contains(Alternative.withId(4)));
+	assertThrows(IllegalArgumentException.class, () -> dense.getAlternativeRank(Alternative.withId(1000)));
+
+	final Alternative far = Alternative.withId(1_000_000);
+	final StrictPreference sparse = new StrictPreference(ImmutableList.of(a2, far));
+	assertEquals(2, sparse.getAlternativeRank(far));
+	assertTrue(sparse.contains(a2));
+	assertFalse(sparse.contains(a1));
+	assertEquals(new StrictPreference(ImmutableList.of(a2, far)), sparse);
+    }
+}